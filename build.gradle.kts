@@ -2,13 +2,24 @@ plugins {
 	java
 	id("org.springframework.boot") version "3.2.4"
 	id("io.spring.dependency-management") version "1.1.4"
+	id("org.hibernate.orm") version "6.4.4.Final"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.github.vitaliiev."
 version = "0.0.1-SNAPSHOT"
 
 java {
-	sourceCompatibility = JavaVersion.VERSION_17
+	// -PjavaToolchain=21 builds and runs on a locally installed Java 21, required by the virtual-threads profile.
+	// Without it the JDK running Gradle is used. Gradle rejects a toolchain combined with sourceCompatibility.
+	val javaToolchain = providers.gradleProperty("javaToolchain").orNull
+	if (javaToolchain != null) {
+		toolchain {
+			languageVersion.set(JavaLanguageVersion.of(javaToolchain))
+		}
+	} else {
+		sourceCompatibility = JavaVersion.VERSION_17
+	}
 }
 
 configurations {
@@ -21,17 +32,77 @@ repositories {
 	mavenCentral()
 }
 
+// src/loadTest: HTTP load test against the application booted in-process, see the loadTest task
+sourceSets {
+	create("loadTest") {
+		compileClasspath += sourceSets.main.get().output
+		runtimeClasspath += sourceSets.main.get().output
+	}
+}
+
+configurations {
+	named("loadTestImplementation") {
+		extendsFrom(configurations.implementation.get())
+	}
+	named("loadTestRuntimeOnly") {
+		extendsFrom(configurations.runtimeOnly.get())
+	}
+}
+
+// spring-boot-starter-webflux, spring-boot-starter-data-r2dbc and r2dbc-h2 only serve the reactive profile. They stay
+// on the main classpath so that profile runs from the same jar, at the cost of a larger servlet application whose
+// application.properties excludes the R2DBC auto-configuration. With both web starters present Boot runs Tomcat.
 dependencies {
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	implementation("org.springframework.boot:spring-boot-starter-aop")
+	implementation("org.springframework.boot:spring-boot-starter-cache")
+	implementation("org.springframework.boot:spring-boot-starter-data-r2dbc")
 	implementation("org.springframework.boot:spring-boot-starter-security")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
 	implementation("org.springframework.boot:spring-boot-starter-web")
+	implementation("org.springframework.boot:spring-boot-starter-webflux")
+
+	implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-cbor")
+	implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+	implementation("com.github.ben-manes.caffeine:caffeine")
+	implementation("org.apache.lucene:lucene-core:9.10.0")
+	implementation("org.hibernate.orm:hibernate-micrometer")
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
 
 	compileOnly("org.projectlombok:lombok")
 	runtimeOnly("com.h2database:h2")
+	runtimeOnly("io.r2dbc:r2dbc-h2")
 	annotationProcessor("org.projectlombok:lombok")
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testImplementation("org.springframework.security:spring-security-test")
+	"loadTestImplementation"("org.hdrhistogram:HdrHistogram:2.1.12")
+}
+
+hibernate {
+	enhancement {
+		enableLazyInitialization.set(true)
+	}
+}
+
+// ./gradlew jmh, results are written as JSON to diff between versions
+jmh {
+	jmhVersion.set("1.37")
+	fork.set(1)
+	warmupIterations.set(3)
+	iterations.set(5)
+	resultFormat.set("JSON")
+	resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+}
+
+// ./gradlew loadTest -Ploadtest.concurrency=32 -Ploadtest.duration=PT1M -Ploadtest.mix=get=80,list=20
+tasks.register<JavaExec>("loadTest") {
+	description = "Runs a mixed HTTP workload against the application and reports throughput and latency."
+	group = "verification"
+	classpath = sourceSets["loadTest"].runtimeClasspath
+	mainClass.set("com.github.vitaliiev.t1rest.loadtest.LoadTest")
+	systemProperties(providers.gradlePropertiesPrefixedBy("loadtest.").get())
+	systemProperty("loadtest.report-dir", layout.buildDirectory.dir("reports/loadtest").get().asFile.path)
 }
 
 tasks.withType<Test> {
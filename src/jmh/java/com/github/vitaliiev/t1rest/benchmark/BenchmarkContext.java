@@ -0,0 +1,29 @@
+package com.github.vitaliiev.t1rest.benchmark;
+
+import com.github.vitaliiev.t1rest.T1restApplication;
+import com.github.vitaliiev.t1rest.model.Task;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+
+final class BenchmarkContext {
+
+	private BenchmarkContext() {
+	}
+
+	static ConfigurableApplicationContext start() {
+		return new SpringApplicationBuilder(T1restApplication.class)
+				.properties("server.port=0", "logging.level.root=warn")
+				.run();
+	}
+
+	static Task task(int i, int descriptionLength) {
+		Task task = new Task();
+		task.setTitle("task " + i);
+		task.setDescription("d".repeat(descriptionLength));
+		task.setDueDate(LocalDate.now().plusDays(i % 30));
+		task.setCompleted(i % 2 == 0);
+		return task;
+	}
+}
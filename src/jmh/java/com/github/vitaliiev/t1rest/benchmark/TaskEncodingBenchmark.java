@@ -0,0 +1,86 @@
+package com.github.vitaliiev.t1rest.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.vitaliiev.t1rest.model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodes a list page of 100 tasks per operation in each wire format, optionally gzipped the way the server
+ * compresses responses. Time per operation is the CPU cost of a response, the bytes counter its size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskEncodingBenchmark {
+
+	private static final String[] WORDS = {"call", "review", "deploy", "invoice", "meeting", "report", "draft",
+			"customer", "release", "fix", "update", "schedule", "budget", "team", "plan", "notes"};
+
+	@Param({"JSON", "SMILE", "CBOR"})
+	public String format;
+
+	@Param({"false", "true"})
+	public boolean gzip;
+
+	@Param({"0", "1024"})
+	public int descriptionLength;
+
+	private ObjectMapper objectMapper;
+	private Page<Task> page;
+
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	@State(Scope.Thread)
+	public static class Size {
+		// assigned rather than accumulated, so it reads as bytes per operation
+		public long bytes;
+	}
+
+	@Setup
+	public void setUp() {
+		Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+		objectMapper = switch (format) {
+			case "SMILE" -> builder.factory(new SmileFactory()).build();
+			case "CBOR" -> builder.factory(new CBORFactory()).build();
+			default -> builder.build();
+		};
+		Random random = new Random(42);
+		page = new PageImpl<>(IntStream.range(0, 100).mapToObj(i -> task(i, random)).toList(), PageRequest.of(0, 100), 1000);
+	}
+
+	@Benchmark
+	public int encodePage(Size size) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+		try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+			objectMapper.writeValue(out, page);
+		}
+		size.bytes = bytes.size();
+		return bytes.size();
+	}
+
+	// words rather than a repeated character, so compression ratios resemble real descriptions
+	private Task task(int i, Random random) {
+		Task task = BenchmarkContext.task(i, 0);
+		task.setId(UUID.randomUUID());
+		StringBuilder description = new StringBuilder(descriptionLength + 16);
+		while (description.length() < descriptionLength) {
+			description.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+		}
+		task.setDescription(description.substring(0, descriptionLength));
+		return task;
+	}
+}
@@ -0,0 +1,53 @@
+package com.github.vitaliiev.t1rest.benchmark;
+
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.repository.TaskRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskRepositoryBenchmark {
+
+	@Param({"1000"})
+	public int tasks;
+
+	private ConfigurableApplicationContext context;
+	private TaskRepository taskRepository;
+	private List<UUID> ids;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		taskRepository = context.getBean(TaskRepository.class);
+		ids = taskRepository.saveAll(IntStream.range(0, tasks).mapToObj(i -> BenchmarkContext.task(i, 1024)).toList())
+				.stream()
+				.map(Task::getId)
+				.toList();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Optional<Task> findById() {
+		return taskRepository.findById(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+	}
+
+	@Benchmark
+	public Page<Task> findAll() {
+		return taskRepository.findAll(PageRequest.of(ThreadLocalRandom.current().nextInt(tasks / 100), 100));
+	}
+}
@@ -0,0 +1,50 @@
+package com.github.vitaliiev.t1rest.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.vitaliiev.t1rest.model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskSerializationBenchmark {
+
+	@Param({"0", "1024"})
+	public int descriptionLength;
+
+	private ObjectMapper objectMapper;
+	private Task task;
+	private Page<Task> page;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		task = task(0);
+		page = new PageImpl<>(IntStream.range(0, 100).mapToObj(this::task).toList(), PageRequest.of(0, 100), 1000);
+	}
+
+	@Benchmark
+	public byte[] serializeTask() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(task);
+	}
+
+	@Benchmark
+	public byte[] serializePage() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(page);
+	}
+
+	private Task task(int i) {
+		Task task = BenchmarkContext.task(i, descriptionLength);
+		task.setId(UUID.randomUUID());
+		return task;
+	}
+}
@@ -0,0 +1,60 @@
+package com.github.vitaliiev.t1rest.benchmark;
+
+import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import com.github.vitaliiev.t1rest.repository.TaskRepository;
+import com.github.vitaliiev.t1rest.service.TaskService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TaskServiceBenchmark {
+
+	private ConfigurableApplicationContext context;
+	private TaskService taskService;
+	private TaskRepository taskRepository;
+	private CreateTaskDto createTaskDto;
+	private UUID existingId;
+	private boolean completed;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		context = BenchmarkContext.start();
+		taskService = context.getBean(TaskService.class);
+		taskRepository = context.getBean(TaskRepository.class);
+		createTaskDto = CreateTaskDto.builder()
+				.title("benchmark")
+				.description("d".repeat(1024))
+				.dueDate(LocalDate.now())
+				.build();
+	}
+
+	@Setup(Level.Iteration)
+	public void setUpIteration() {
+		taskRepository.deleteAllInBatch();
+		existingId = taskRepository.save(BenchmarkContext.task(0, 1024)).getId();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public Task createTask() {
+		return taskService.createTask(createTaskDto);
+	}
+
+	@Benchmark
+	public Task updateTask() {
+		completed = !completed;
+		return taskService.updateTask(existingId, UpdateTaskDto.builder().completed(completed).build());
+	}
+}
@@ -0,0 +1,156 @@
+package com.github.vitaliiev.t1rest.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.vitaliiev.t1rest.T1restApplication;
+import com.github.vitaliiev.t1rest.model.BatchItemResult;
+import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.service.TaskService;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Boots the application on a random port with the in-memory H2 database, seeds it, and drives a mixed workload
+ * over HTTP with {@code loadtest.concurrency} closed-loop clients. Latencies recorded during the warmup are
+ * discarded; the report lists throughput and p50/p99/p99.9/max latency per operation.
+ * <p>
+ * Run with {@code ./gradlew loadTest}, see {@link LoadTestConfig} for the {@code -Ploadtest.*} options.
+ */
+public final class LoadTest {
+
+	private static final int SEED_CHUNK_SIZE = 500;
+
+	private LoadTest() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(T1restApplication.class)
+				// all workers share one user, so the per-user rate limit would cap the whole run; failed logins
+				// are the only requests charged per address. Defaults, so -D system properties still apply
+				.properties("server.port=0", "logging.level.root=warn", "t1rest.rate-limit.enabled=false")
+				.run(args)) {
+			int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+			List<List<UUID>> ids = seed(context.getBean(TaskService.class), config);
+			OperationStats stats = run(config, URI.create("http://localhost:" + port), ids,
+					context.getBean(ObjectMapper.class));
+			System.out.println("Load test: " + config);
+			report(config, stats, System.out);
+		}
+	}
+
+	// seeded ids are dealt round-robin, one list per worker
+	private static List<List<UUID>> seed(TaskService taskService, LoadTestConfig config) {
+		List<List<UUID>> ids = new ArrayList<>();
+		for (int i = 0; i < config.concurrency; i++) {
+			ids.add(new ArrayList<>());
+		}
+		int seeded = 0;
+		while (seeded < config.seedTasks) {
+			List<CreateTaskDto> chunk = new ArrayList<>();
+			for (int i = 0; i < SEED_CHUNK_SIZE && seeded + i < config.seedTasks; i++) {
+				chunk.add(CreateTaskDto.builder()
+						.title("seed " + (seeded + i))
+						.description("load test seed task")
+						.dueDate(LocalDate.now().plusDays((seeded + i) % 30))
+						.completed((seeded + i) % 3 == 0)
+						.build());
+			}
+			for (BatchItemResult result : taskService.createTasks(chunk)) {
+				ids.get((seeded + result.getIndex()) % config.concurrency).add(result.getId());
+			}
+			seeded += chunk.size();
+		}
+		return ids;
+	}
+
+	private static OperationStats run(LoadTestConfig config, URI baseUri, List<List<UUID>> ids,
+			ObjectMapper objectMapper) throws InterruptedException {
+		String authorization = "Basic " + Base64.getEncoder()
+				.encodeToString((config.username + ":" + config.password).getBytes(StandardCharsets.UTF_8));
+		OperationStats stats = new OperationStats();
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		List<Worker> workers = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < config.concurrency; i++) {
+			Worker worker = new Worker(client, objectMapper, baseUri, authorization, config, stats, ids.get(i));
+			Thread thread = new Thread(worker, "load-test-" + i);
+			workers.add(worker);
+			threads.add(thread);
+			thread.start();
+		}
+		Thread.sleep(config.warmup.toMillis());
+		stats.reset();
+		Thread.sleep(config.duration.toMillis());
+		workers.forEach(Worker::stop);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		return stats;
+	}
+
+	private static void report(LoadTestConfig config, OperationStats stats, PrintStream out) throws IOException {
+		Map<Operation, Histogram> histograms = stats.histograms();
+		double seconds = config.duration.toNanos() / 1e9;
+		Histogram total = new Histogram(3);
+		long totalErrors = 0;
+		out.printf("%-8s %10s %8s %10s %10s %10s %10s %10s%n",
+				"op", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+		for (Operation operation : Operation.values()) {
+			if (!config.mix.containsKey(operation)) {
+				continue;
+			}
+			Histogram histogram = histograms.get(operation);
+			long errors = stats.errors(operation);
+			total.add(histogram);
+			totalErrors += errors;
+			line(out, operation.name().toLowerCase(), histogram, errors, seconds);
+			write(operation.name().toLowerCase(), histogram);
+		}
+		line(out, "total", total, totalErrors, seconds);
+		write("total", total);
+	}
+
+	private static void line(PrintStream out, String name, Histogram histogram, long errors, double seconds) {
+		out.printf("%-8s %10d %8d %10.1f %10.3f %10.3f %10.3f %10.3f%n",
+				name,
+				histogram.getTotalCount(),
+				errors,
+				histogram.getTotalCount() / seconds,
+				histogram.getValueAtPercentile(50) / 1000.0,
+				histogram.getValueAtPercentile(99) / 1000.0,
+				histogram.getValueAtPercentile(99.9) / 1000.0,
+				histogram.getMaxValue() / 1000.0);
+	}
+
+	// full distributions in the .hgrm format, for the HdrHistogram plotter
+	private static void write(String name, Histogram histogram) throws IOException {
+		String reportDir = System.getProperty("loadtest.report-dir");
+		if (reportDir == null) {
+			return;
+		}
+		Path dir = Files.createDirectories(Path.of(reportDir));
+		try (PrintStream out = new PrintStream(new FileOutputStream(dir.resolve(name + ".hgrm").toFile()))) {
+			histogram.outputPercentileDistribution(out, 1000.0);
+		}
+	}
+}
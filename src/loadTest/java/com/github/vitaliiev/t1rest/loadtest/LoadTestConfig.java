@@ -0,0 +1,72 @@
+package com.github.vitaliiev.t1rest.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test settings read from {@code loadtest.*} system properties, which the {@code loadTest} Gradle task
+ * forwards from {@code -Ploadtest.*} project properties.
+ */
+final class LoadTestConfig {
+
+	final int concurrency;
+	final Duration warmup;
+	final Duration duration;
+	final int seedTasks;
+	final int pageSize;
+	final String username;
+	final String password;
+	final Map<Operation, Integer> mix;
+
+	private LoadTestConfig(int concurrency, Duration warmup, Duration duration, int seedTasks, int pageSize,
+			String username, String password, Map<Operation, Integer> mix) {
+		this.concurrency = concurrency;
+		this.warmup = warmup;
+		this.duration = duration;
+		this.seedTasks = seedTasks;
+		this.pageSize = pageSize;
+		this.username = username;
+		this.password = password;
+		this.mix = mix;
+	}
+
+	static LoadTestConfig fromSystemProperties() {
+		return new LoadTestConfig(
+				Integer.getInteger("loadtest.concurrency", 16),
+				Duration.parse(System.getProperty("loadtest.warmup", "PT10S")),
+				Duration.parse(System.getProperty("loadtest.duration", "PT30S")),
+				Integer.getInteger("loadtest.seed-tasks", 10_000),
+				Integer.getInteger("loadtest.page-size", 20),
+				System.getProperty("loadtest.username", "admin"),
+				System.getProperty("loadtest.password", "admin"),
+				parseMix(System.getProperty("loadtest.mix", "create=10,get=50,update=20,delete=5,list=15")));
+	}
+
+	// "create=10,get=50" -> relative weights, operations left out are not run
+	static Map<Operation, Integer> parseMix(String mix) {
+		Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+		for (String entry : mix.split(",")) {
+			String[] parts = entry.split("=");
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("Invalid loadtest.mix entry: " + entry);
+			}
+			int weight = Integer.parseInt(parts[1].trim());
+			if (weight < 0) {
+				throw new IllegalArgumentException("Negative weight in loadtest.mix: " + entry);
+			}
+			weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+		}
+		if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+			throw new IllegalArgumentException("loadtest.mix has no positive weight");
+		}
+		return weights;
+	}
+
+	@Override
+	public String toString() {
+		return "concurrency=" + concurrency + ", warmup=" + warmup + ", duration=" + duration
+				+ ", seedTasks=" + seedTasks + ", pageSize=" + pageSize + ", mix=" + mix;
+	}
+}
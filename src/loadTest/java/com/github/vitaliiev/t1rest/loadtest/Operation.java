@@ -0,0 +1,9 @@
+package com.github.vitaliiev.t1rest.loadtest;
+
+enum Operation {
+	CREATE,
+	GET,
+	UPDATE,
+	DELETE,
+	LIST
+}
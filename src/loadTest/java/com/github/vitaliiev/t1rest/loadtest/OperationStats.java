@@ -0,0 +1,54 @@
+package com.github.vitaliiev.t1rest.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of successful requests per operation, in microseconds. Failed requests are only counted, so their
+ * (often very short) latencies do not flatter the percentiles.
+ */
+final class OperationStats {
+
+	private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+	private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+	OperationStats() {
+		for (Operation operation : Operation.values()) {
+			recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+			errors.put(operation, new LongAdder());
+		}
+	}
+
+	void record(Operation operation, long nanos, boolean ok) {
+		if (ok) {
+			long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS);
+			recorders.get(operation).recordValue(micros);
+		} else {
+			errors.get(operation).increment();
+		}
+	}
+
+	// drops everything recorded so far, called when the warmup ends
+	void reset() {
+		recorders.values().forEach(Recorder::reset);
+		errors.values().forEach(LongAdder::reset);
+	}
+
+	Map<Operation, Histogram> histograms() {
+		Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+		recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+		return histograms;
+	}
+
+	long errors(Operation operation) {
+		return errors.get(operation).sum();
+	}
+}
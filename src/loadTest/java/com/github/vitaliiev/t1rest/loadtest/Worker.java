@@ -0,0 +1,134 @@
+package com.github.vitaliiev.t1rest.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop client: sends the next request as soon as the previous one completed. Each worker owns the ids it
+ * gets and the ones it creates, so updates and deletes of different workers never collide.
+ */
+final class Worker implements Runnable {
+
+	private static final int LIST_PAGES = 10;
+
+	private final HttpClient client;
+	private final ObjectMapper objectMapper;
+	private final URI baseUri;
+	private final String authorization;
+	private final LoadTestConfig config;
+	private final OperationStats stats;
+	private final List<UUID> ids;
+	private final Operation[] operations;
+	private final int[] cumulativeWeights;
+	private volatile boolean running = true;
+
+	Worker(HttpClient client, ObjectMapper objectMapper, URI baseUri, String authorization, LoadTestConfig config,
+			OperationStats stats, List<UUID> ids) {
+		this.client = client;
+		this.objectMapper = objectMapper;
+		this.baseUri = baseUri;
+		this.authorization = authorization;
+		this.config = config;
+		this.stats = stats;
+		this.ids = ids;
+		this.operations = config.mix.keySet().toArray(Operation[]::new);
+		this.cumulativeWeights = new int[operations.length];
+		int total = 0;
+		for (int i = 0; i < operations.length; i++) {
+			total += config.mix.get(operations[i]);
+			cumulativeWeights[i] = total;
+		}
+	}
+
+	void stop() {
+		running = false;
+	}
+
+	@Override
+	public void run() {
+		while (running) {
+			Operation operation = next();
+			if (operation != Operation.CREATE && operation != Operation.LIST && ids.isEmpty()) {
+				operation = Operation.CREATE;
+			}
+			long start = System.nanoTime();
+			try {
+				boolean ok = execute(operation);
+				stats.record(operation, System.nanoTime() - start, ok);
+			} catch (IOException e) {
+				stats.record(operation, System.nanoTime() - start, false);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	private Operation next() {
+		int value = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+		for (int i = 0; i < cumulativeWeights.length; i++) {
+			if (value < cumulativeWeights[i]) {
+				return operations[i];
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	private boolean execute(Operation operation) throws IOException, InterruptedException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return switch (operation) {
+			case CREATE -> {
+				HttpResponse<byte[]> response = send(json(request("/tasks"), "POST", Map.of(
+						"title", "load " + random.nextInt(1_000_000),
+						"description", "load test task",
+						"dueDate", LocalDate.now().plusDays(random.nextInt(30)).toString(),
+						"completed", false)));
+				if (response.statusCode() != 200) {
+					yield false;
+				}
+				ids.add(UUID.fromString(objectMapper.readTree(response.body()).get("id").asText()));
+				yield true;
+			}
+			case GET -> send(request("/tasks/" + randomId()).GET().build()).statusCode() == 200;
+			case UPDATE -> send(json(request("/tasks/" + randomId()), "PUT",
+					Map.of("completed", random.nextBoolean()))).statusCode() == 200;
+			case DELETE -> {
+				UUID id = ids.remove(random.nextInt(ids.size()));
+				yield send(request("/tasks/" + id).DELETE().build()).statusCode() == 200;
+			}
+			case LIST -> send(request("/tasks?page=" + random.nextInt(LIST_PAGES) + "&size=" + config.pageSize)
+					.GET().build()).statusCode() == 200;
+		};
+	}
+
+	private UUID randomId() {
+		return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+	}
+
+	private HttpRequest.Builder request(String path) {
+		return HttpRequest.newBuilder(baseUri.resolve(path))
+				.header("Authorization", authorization)
+				.header("Accept", "application/json");
+	}
+
+	private HttpRequest json(HttpRequest.Builder request, String method, Map<String, Object> body)
+			throws IOException {
+		return request.header("Content-Type", "application/json")
+				.method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+				.build();
+	}
+
+	private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+		return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+	}
+}
@@ -0,0 +1,38 @@
+package com.github.vitaliiev.t1rest.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Single tasks are cached by {@link com.github.vitaliiev.t1rest.service.TaskCache}, which follows committed
+ * changes. Caching advice is ordered before the transaction advice, so a cache hit does not open a transaction.
+ */
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@Configuration
+public class CacheConfig {
+
+	public static final String TASKS_CACHE = "tasks";
+	public static final String TASK_COUNTS_CACHE = "taskCounts";
+
+	/**
+	 * Filtered totals are not evicted on writes, they expire after a short TTL instead of the spec shared
+	 * by the other caches.
+	 */
+	@Bean
+	public CacheManagerCustomizer<CaffeineCacheManager> taskCountsCacheCustomizer(
+			@Value("${t1rest.paging.count-cache-ttl:5s}") Duration ttl) {
+		return cacheManager -> cacheManager.registerCustomCache(TASK_COUNTS_CACHE, Caffeine.newBuilder()
+				.expireAfterWrite(ttl)
+				.maximumSize(1000)
+				.recordStats()
+				.build());
+	}
+}
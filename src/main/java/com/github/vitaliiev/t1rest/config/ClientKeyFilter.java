@@ -0,0 +1,64 @@
+package com.github.vitaliiev.t1rest.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Tells clients apart for the read-your-writes stickiness of {@link ReplicaRoutingDataSource}. All callers share
+ * the same user, so the client is identified by a token in the {@value #COOKIE_NAME} cookie, which unsafe requests
+ * without it are given. Requests without the cookie fall back to their remote address; an unsafe one is keyed by
+ * both, so its first write is seen by the next read whether or not the client returns the cookie.
+ * <p>
+ * Clients sharing an address, such as the callers behind a gateway, only stick together while they do not
+ * return the cookie.
+ */
+public class ClientKeyFilter extends OncePerRequestFilter {
+
+	public static final String COOKIE_NAME = "T1REST_CLIENT";
+
+	private static final String KEYS_ATTRIBUTE = ClientKeyFilter.class.getName() + ".keys";
+	private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+	/**
+	 * @return the keys of the client of the current request, empty outside of requests
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<String> currentClientKeys() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		Object keys = attributes == null ? null : attributes.getAttribute(KEYS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		return keys == null ? List.of() : (List<String>) keys;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		Cookie cookie = WebUtils.getCookie(request, COOKIE_NAME);
+		List<String> keys;
+		if (cookie != null && !cookie.getValue().isEmpty()) {
+			keys = List.of("token:" + cookie.getValue());
+		} else if (SAFE_METHODS.contains(request.getMethod())) {
+			keys = List.of("address:" + request.getRemoteAddr());
+		} else {
+			String token = UUID.randomUUID().toString();
+			Cookie issued = new Cookie(COOKIE_NAME, token);
+			issued.setPath("/");
+			issued.setHttpOnly(true);
+			response.addCookie(issued);
+			keys = List.of("address:" + request.getRemoteAddr(), "token:" + token);
+		}
+		request.setAttribute(KEYS_ATTRIBUTE, keys);
+		filterChain.doFilter(request, response);
+	}
+}
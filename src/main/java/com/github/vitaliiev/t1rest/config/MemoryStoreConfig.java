@@ -0,0 +1,59 @@
+package com.github.vitaliiev.t1rest.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Profile("memory")
+@Configuration
+public class MemoryStoreConfig {
+
+	/**
+	 * Replaces the JPA transaction manager, which is not configured without a data source. Transactions hold no
+	 * resource and roll nothing back; they only demarcate the synchronization that after-commit event listeners
+	 * rely on.
+	 */
+	@Bean
+	public PlatformTransactionManager transactionManager() {
+		return new SynchronizationTransactionManager();
+	}
+
+	static class SynchronizationTransactionManager extends AbstractPlatformTransactionManager {
+
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected boolean isExistingTransaction(Object transaction) {
+			return TransactionSynchronizationManager.isActualTransactionActive();
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+
+		@Override
+		protected Object doSuspend(Object transaction) {
+			return null;
+		}
+
+		@Override
+		protected void doResume(Object transaction, Object suspendedResources) {
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+	}
+}
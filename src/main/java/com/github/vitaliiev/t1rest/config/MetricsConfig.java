@@ -0,0 +1,18 @@
+package com.github.vitaliiev.t1rest.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+	/**
+	 * Enables {@link io.micrometer.core.annotation.Timed} on beans; failed calls are tagged with the exception class.
+	 */
+	@Bean
+	public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+		return new TimedAspect(meterRegistry);
+	}
+}
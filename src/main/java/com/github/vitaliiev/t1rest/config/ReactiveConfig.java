@@ -0,0 +1,39 @@
+package com.github.vitaliiev.t1rest.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalEventPublisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+@Profile("reactive")
+@Configuration
+public class ReactiveConfig {
+
+	@Bean
+	public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+		return DatabaseClient.create(connectionFactory);
+	}
+
+	/**
+	 * The R2DBC transaction manager is not a bean: a second TransactionManager would make @Transactional
+	 * ambiguous and stop Spring Boot from configuring the JPA one, which the rest of the application uses.
+	 */
+	@Bean
+	public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+		return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+	}
+
+	/**
+	 * Carries the reactive transaction with published events, so @TransactionalEventListener methods run
+	 * after it committed.
+	 */
+	@Bean
+	public TransactionalEventPublisher transactionalEventPublisher(ApplicationEventPublisher eventPublisher) {
+		return new TransactionalEventPublisher(eventPublisher);
+	}
+}
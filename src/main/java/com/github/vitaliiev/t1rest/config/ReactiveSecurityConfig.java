@@ -0,0 +1,39 @@
+package com.github.vitaliiev.t1rest.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.ReactiveAuthenticationManagerAdapter;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Configuration
+public class ReactiveSecurityConfig {
+
+    /**
+     * Reuses the caching {@link AuthenticationManager}; the adapter runs it on a bounded elastic scheduler,
+     * so password checks never block the event loop.
+     */
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(AuthenticationManager authenticationManager) {
+        return new ReactiveAuthenticationManagerAdapter(authenticationManager);
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         ReactiveAuthenticationManager reactiveAuthenticationManager) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .authenticationManager(reactiveAuthenticationManager)
+                .authorizeExchange(exchange -> exchange.anyExchange().authenticated())
+                .httpBasic(Customizer.withDefaults())
+                .build();
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.github.vitaliiev.t1rest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enabled by {@code t1rest.datasource.replica-urls}: read-only transactions are served by replica pools sharing
+ * the primary's credentials, see {@link ReplicaRoutingDataSource}. Clients are identified for read-your-writes
+ * stickiness by {@link ClientKeyFilter}.
+ */
+@ConditionalOnProperty(name = "t1rest.datasource.replica-urls")
+@Configuration
+public class ReplicaRoutingConfig {
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+		return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+	}
+
+	@Bean
+	public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+			DataSourceProperties properties, MeterRegistry meterRegistry,
+			@Value("${t1rest.datasource.replica-urls}") List<String> replicaUrls,
+			@Value("${t1rest.datasource.replica-pool-size:10}") int replicaPoolSize,
+			@Value("${t1rest.datasource.sticky-window:5s}") Duration stickyWindow) {
+		List<DataSource> replicas = new ArrayList<>(replicaUrls.size());
+		for (int i = 0; i < replicaUrls.size(); i++) {
+			HikariDataSource replica = new HikariDataSource();
+			replica.setPoolName("replica-" + (i + 1));
+			replica.setJdbcUrl(replicaUrls.get(i).trim());
+			replica.setUsername(properties.determineUsername());
+			replica.setPassword(properties.determinePassword());
+			replica.setMaximumPoolSize(replicaPoolSize);
+			replica.setReadOnly(true);
+			replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+			replicas.add(replica);
+		}
+		ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource, replicas,
+				ClientKeyFilter::currentClientKeys, stickyWindow);
+		Gauge.builder("datasource.replicas.healthy", routingDataSource, ReplicaRoutingDataSource::healthyReplicas)
+				.description("Replicas currently receiving read-only transactions")
+				.register(meterRegistry);
+		return routingDataSource;
+	}
+
+	/**
+	 * The data source used by JPA. Connections are fetched on the first statement, after the transaction
+	 * has been marked read-only, and only then routed.
+	 */
+	@Bean
+	@Primary
+	public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+		return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+	}
+
+	@Bean
+	@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+	public FilterRegistrationBean<ClientKeyFilter> clientKeyFilter() {
+		return new FilterRegistrationBean<>(new ClientKeyFilter());
+	}
+}
@@ -0,0 +1,145 @@
+package com.github.vitaliiev.t1rest.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands out replica connections inside read-only transactions and primary connections otherwise. Replicas are
+ * taken round-robin, skipping those that failed their last health check or connection attempt; without a
+ * healthy replica reads fall back to the primary.
+ * <p>
+ * A client that obtained a primary connection for a write keeps reading from the primary for the sticky window,
+ * so it sees its own writes despite replication lag. Clients are told apart by {@code clientKeys}: a write marks
+ * every key of the calling client, and its reads stick to the primary while any of them is marked. Calls without
+ * keys, such as background jobs, are not sticky.
+ * <p>
+ * The routing decision is made when a connection is requested, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: transaction managers acquire the
+ * connection before the read-only flag of the transaction is exposed.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+	private final DataSource primary;
+	private final List<Replica> replicas;
+	private final Supplier<List<String>> clientKeys;
+	private final Cache<String, Boolean> recentWriters;
+	private final AtomicInteger next = new AtomicInteger();
+
+	public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Supplier<List<String>> clientKeys,
+			Duration stickyWindow) {
+		this.primary = primary;
+		this.replicas = replicas.stream().map(Replica::new).toList();
+		this.clientKeys = clientKeys;
+		this.recentWriters = Caffeine.newBuilder()
+				.expireAfterWrite(stickyWindow)
+				.maximumSize(100_000)
+				.build();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return route(DataSource::getConnection);
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return route(dataSource -> dataSource.getConnection(username, password));
+	}
+
+	private Connection route(ConnectionOpener opener) throws SQLException {
+		List<String> client = clientKeys.get();
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			for (String key : client) {
+				recentWriters.put(key, Boolean.TRUE);
+			}
+			return opener.open(primary);
+		}
+		if (client.stream().noneMatch(key -> recentWriters.getIfPresent(key) != null)) {
+			for (int attempt = 0; attempt < replicas.size(); attempt++) {
+				Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+				if (!replica.healthy) {
+					continue;
+				}
+				try {
+					return opener.open(replica.dataSource);
+				} catch (SQLException e) {
+					replica.healthy = false;
+					log.warn("Replica {} failed, routing reads elsewhere until it passes a health check", replica, e);
+				}
+			}
+		}
+		return opener.open(primary);
+	}
+
+	/**
+	 * Validates every replica with a fresh connection and updates whether reads are routed to it. Replicas start
+	 * out healthy, so the first check waits for one interval.
+	 */
+	@Scheduled(fixedDelayString = "${t1rest.datasource.health-check-interval:PT5S}",
+			initialDelayString = "${t1rest.datasource.health-check-interval:PT5S}")
+	public void checkReplicas() {
+		for (Replica replica : replicas) {
+			boolean healthy;
+			try (Connection connection = replica.dataSource.getConnection()) {
+				healthy = connection.isValid(1);
+			} catch (SQLException e) {
+				healthy = false;
+			}
+			if (healthy != replica.healthy) {
+				log.info("Replica {} is now {}", replica, healthy ? "healthy" : "unhealthy");
+			}
+			replica.healthy = healthy;
+		}
+	}
+
+	public int healthyReplicas() {
+		return (int) replicas.stream().filter(replica -> replica.healthy).count();
+	}
+
+	/**
+	 * Closes the replica pools; the primary is closed by its owner.
+	 */
+	public void close() {
+		for (Replica replica : replicas) {
+			if (replica.dataSource instanceof AutoCloseable closeable) {
+				try {
+					closeable.close();
+				} catch (Exception e) {
+					log.warn("Failed to close replica {}", replica, e);
+				}
+			}
+		}
+	}
+
+	@FunctionalInterface
+	private interface ConnectionOpener {
+		Connection open(DataSource dataSource) throws SQLException;
+	}
+
+	private static final class Replica {
+		private final DataSource dataSource;
+		private volatile boolean healthy = true;
+
+		private Replica(DataSource dataSource) {
+			this.dataSource = dataSource;
+		}
+
+		@Override
+		public String toString() {
+			return dataSource.toString();
+		}
+	}
+}
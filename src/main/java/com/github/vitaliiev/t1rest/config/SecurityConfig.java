@@ -1,7 +1,22 @@
 package com.github.vitaliiev.t1rest.config;
 
+import com.github.vitaliiev.t1rest.security.AdaptiveConcurrencyLimiter;
+import com.github.vitaliiev.t1rest.security.AdmissionControlFilter;
+import com.github.vitaliiev.t1rest.security.AuthenticationFailureLimitFilter;
+import com.github.vitaliiev.t1rest.security.CachingAuthenticationProvider;
+import com.github.vitaliiev.t1rest.security.RateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -12,6 +27,9 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+
+import java.time.Duration;
 
 @Configuration
 public class SecurityConfig {
@@ -33,12 +51,66 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, UserDetailsService userDetailsService) throws Exception {
+    public AuthenticationManager authenticationManager(UserDetailsService userDetailsService,
+                                                       PasswordEncoder passwordEncoder,
+                                                       @Value("${t1rest.security.auth-cache.ttl}") Duration ttl,
+                                                       @Value("${t1rest.security.auth-cache.max-size}") long maxSize) {
+        DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
+        daoAuthenticationProvider.setUserDetailsService(userDetailsService);
+        daoAuthenticationProvider.setPasswordEncoder(passwordEncoder);
+        return new ProviderManager(new CachingAuthenticationProvider(daoAuthenticationProvider, ttl, maxSize));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "t1rest.address-rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public RateLimiter addressRateLimiter(@Value("${t1rest.address-rate-limit.requests-per-second}") double requestsPerSecond,
+                                          @Value("${t1rest.address-rate-limit.burst}") int burst,
+                                          @Value("${t1rest.address-rate-limit.max-clients}") long maxClients) {
+        return new RateLimiter(requestsPerSecond, burst, maxClients);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "t1rest.rate-limit.enabled", havingValue = "true")
+    public RateLimiter rateLimiter(@Value("${t1rest.rate-limit.requests-per-second}") double requestsPerSecond,
+                                   @Value("${t1rest.rate-limit.burst}") int burst,
+                                   @Value("${t1rest.rate-limit.max-clients}") long maxClients) {
+        return new RateLimiter(requestsPerSecond, burst, maxClients);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "t1rest.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public AdaptiveConcurrencyLimiter concurrencyLimiter(@Value("${t1rest.concurrency-limit.initial}") int initialLimit,
+                                                         @Value("${t1rest.concurrency-limit.min}") int minLimit,
+                                                         @Value("${t1rest.concurrency-limit.max}") int maxLimit,
+                                                         MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit);
+        Gauge.builder("http.server.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("http.server.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationManager authenticationManager,
+                                                   @Qualifier("addressRateLimiter") ObjectProvider<RateLimiter> addressRateLimiter,
+                                                   @Qualifier("rateLimiter") ObjectProvider<RateLimiter> rateLimiter,
+                                                   ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter,
+                                                   MeterRegistry meterRegistry) throws Exception {
+        // created here rather than as beans, which would also register them with the servlet container
+        AuthenticationFailureLimitFilter authenticationFailureLimitFilter = new AuthenticationFailureLimitFilter(
+                addressRateLimiter.getIfAvailable(), meterRegistry);
+        AdmissionControlFilter admissionControlFilter = new AdmissionControlFilter(
+                rateLimiter.getIfAvailable(), AdmissionControlFilter::user, concurrencyLimiter.getIfAvailable(),
+                meterRegistry);
         http
                 .csrf(AbstractHttpConfigurer::disable)
-                .userDetailsService(userDetailsService)
+                .authenticationManager(authenticationManager)
                 .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
-                .httpBasic(Customizer.withDefaults());
+                .httpBasic(Customizer.withDefaults())
+                .addFilterBefore(authenticationFailureLimitFilter, BasicAuthenticationFilter.class)
+                .addFilterAfter(admissionControlFilter, BasicAuthenticationFilter.class);
         return http.build();
     }
 
@@ -0,0 +1,48 @@
+package com.github.vitaliiev.t1rest.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Configuration
+public class WebConfig {
+
+	public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+	/**
+	 * Binary formats for service-to-service clients, built from the same Jackson configuration as JSON so
+	 * every format renders dates and nulls the same way.
+	 */
+	@Bean
+	public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+
+	@Bean
+	public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+
+	/**
+	 * List pages have no single version to derive an ETag from, so their ETag is a hash of the rendered body.
+	 * This saves bandwidth for unchanged pages; single tasks get a version-based ETag in the controller.
+	 * The ETag is weak, which is enough for If-None-Match: Tomcat does not compress responses with a strong
+	 * ETag, since the compressed body would carry the tag of the uncompressed one.
+	 */
+	@Bean
+	public FilterRegistrationBean<ShallowEtagHeaderFilter> listEtagFilter() {
+		ShallowEtagHeaderFilter filter = new ShallowEtagHeaderFilter();
+		filter.setWriteWeakETag(true);
+		FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(filter);
+		registration.addUrlPatterns("/tasks", "/tasks/slice", "/tasks/scroll");
+		return registration;
+	}
+}
@@ -0,0 +1,94 @@
+package com.github.vitaliiev.t1rest.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskFilter;
+import com.github.vitaliiev.t1rest.model.TaskNotFountException;
+import com.github.vitaliiev.t1rest.model.TaskSort;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import com.github.vitaliiev.t1rest.service.ReactiveTaskService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * The task endpoints of {@link TaskController} with their paging, filtering, sorting and conditional request
+ * semantics, in JSON only. WebFlux answers {@code If-None-Match} on GET from the returned ETag.
+ */
+@Profile("reactive")
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(value = "tasks", produces = APPLICATION_JSON_VALUE)
+public class ReactiveTaskController {
+
+	private final ReactiveTaskService taskService;
+	private final ObjectMapper objectMapper;
+
+	@GetMapping
+	public Mono<ResponseEntity<Page<TaskSummary>>> getTasks(
+			@RequestParam(required = false) @PositiveOrZero Integer page,
+			@RequestParam(required = false) @Positive Integer size,
+			@RequestParam(required = false) Boolean completed,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+			@RequestParam(required = false) String titlePrefix,
+			@RequestParam(required = false) TaskSort sort) {
+		TaskFilter filter = TaskFilter.builder()
+				.completed(completed)
+				.dueFrom(dueFrom)
+				.dueTo(dueTo)
+				.titlePrefix(titlePrefix)
+				.sort(sort)
+				.build();
+		// there is no ShallowEtagHeaderFilter in WebFlux, the page is tagged the same way here
+		return taskService.getTasks(page, size, filter)
+				.flatMap(tasks -> Mono.fromCallable(() -> ResponseEntity.ok()
+						.eTag(TaskETags.ofBody(objectMapper.writeValueAsBytes(tasks)))
+						.body(tasks)));
+	}
+
+	@PostMapping(consumes = APPLICATION_JSON_VALUE)
+	public Mono<Task> createTask(@RequestBody @Valid CreateTaskDto task) {
+		return taskService.createTask(task);
+	}
+
+	@GetMapping("/{id}")
+	public Mono<ResponseEntity<Task>> getTask(@PathVariable UUID id) {
+		return taskService.getTask(id)
+				.map(task -> ResponseEntity.ok()
+						.eTag(TaskETags.of(task))
+						.body(task));
+	}
+
+	@PutMapping("/{id}")
+	public Mono<ResponseEntity<Task>> updateTask(@PathVariable UUID id, @RequestBody @Valid UpdateTaskDto task,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		return taskService.updateTask(id, task, TaskETags.expectedVersion(id, ifMatch))
+				.onErrorMap(TaskNotFountException.class, e -> TaskETags.notFound(id, ifMatch, e))
+				.map(updated -> ResponseEntity.ok()
+						.eTag(TaskETags.of(updated))
+						.body(updated));
+	}
+
+	@DeleteMapping("/{id}")
+	public Mono<Void> deleteTask(@PathVariable UUID id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		return taskService.deleteTask(id, TaskETags.expectedVersion(id, ifMatch))
+				.onErrorMap(TaskNotFountException.class, e -> TaskETags.notFound(id, ifMatch, e));
+	}
+}
@@ -1,48 +1,285 @@
 package com.github.vitaliiev.t1rest.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.vitaliiev.t1rest.model.AcceptedTask;
+import com.github.vitaliiev.t1rest.model.BatchItemResult;
+import com.github.vitaliiev.t1rest.model.BatchUpdateTaskDto;
 import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.model.CursorPage;
+import com.github.vitaliiev.t1rest.model.ImportResult;
 import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskChange;
+import com.github.vitaliiev.t1rest.model.TaskFilter;
+import com.github.vitaliiev.t1rest.model.TaskNotFountException;
+import com.github.vitaliiev.t1rest.model.TaskQueueFullException;
+import com.github.vitaliiev.t1rest.model.TaskSort;
+import com.github.vitaliiev.t1rest.model.TaskStats;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.TaskView;
 import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import com.github.vitaliiev.t1rest.service.TaskChangeFeed;
+import com.github.vitaliiev.t1rest.service.TaskChangeSubscriber;
+import com.github.vitaliiev.t1rest.service.TaskImportService;
+import com.github.vitaliiev.t1rest.service.TaskSearchService;
 import com.github.vitaliiev.t1rest.service.TaskService;
+import com.github.vitaliiev.t1rest.service.TaskStatsService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import static com.github.vitaliiev.t1rest.config.WebConfig.APPLICATION_SMILE_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_CBOR_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 
+@Profile("!reactive")
 @RequiredArgsConstructor
 @RestController
-@RequestMapping(value = "tasks", produces = APPLICATION_JSON_VALUE)
+@RequestMapping(value = "tasks", produces = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
 public class TaskController {
 
 	private final TaskService taskService;
+	private final TaskImportService taskImportService;
+	private final ObjectMapper objectMapper;
+	private final TaskChangeFeed taskChangeFeed;
+	private final TaskSearchService taskSearchService;
+	private final TaskStatsService taskStatsService;
+
+	@Value("${t1rest.changes.timeout:30m}")
+	private Duration changesTimeout;
+
+	private static final int EXPORT_FLUSH_ROWS = 100;
+	private static final String PREFER = "Prefer";
+	private static final String PREFERENCE_APPLIED = "Preference-Applied";
+	private static final String RESPOND_ASYNC = "respond-async";
+	private static final String QUEUE_FULL_RETRY_AFTER_SECONDS = "1";
 
 	@GetMapping
-	public Page<Task> getTasks(@RequestParam(required = false) @PositiveOrZero Integer page) {
-		return taskService.getTasks(page);
+	public Page<TaskSummary> getTasks(@RequestParam(required = false) @PositiveOrZero Integer page,
+			@RequestParam(required = false) @Positive Integer size,
+			@RequestParam(required = false) Boolean completed,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+			@RequestParam(required = false) String titlePrefix,
+			@RequestParam(required = false) TaskSort sort) {
+		return taskService.getTasks(page, size, filter(completed, dueFrom, dueTo, titlePrefix, sort));
+	}
+
+	/**
+	 * Same as {@link #getTasks} without the total count, for clients that only need to know whether
+	 * there is a next page.
+	 */
+	@GetMapping("/slice")
+	public Slice<TaskSummary> getTaskSlice(@RequestParam(required = false) @PositiveOrZero Integer page,
+			@RequestParam(required = false) @Positive Integer size,
+			@RequestParam(required = false) Boolean completed,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+			@RequestParam(required = false) String titlePrefix,
+			@RequestParam(required = false) TaskSort sort) {
+		return taskService.getTaskSlice(page, size, filter(completed, dueFrom, dueTo, titlePrefix, sort));
+	}
+
+	@GetMapping("/stats")
+	public TaskStats getStats() {
+		return taskStatsService.getStats();
+	}
+
+	@GetMapping("/scroll")
+	public CursorPage<TaskSummary> scrollTasks(@RequestParam(required = false) String cursor) {
+		return taskService.scrollTasks(cursor);
+	}
+
+	@GetMapping("/search")
+	public Page<TaskSummary> searchTasks(@RequestParam @NotBlank String q,
+			@RequestParam(required = false) @PositiveOrZero Integer page) {
+		return taskSearchService.search(q, page);
+	}
+
+	@PostMapping("/search/rebuild")
+	@ResponseStatus(HttpStatus.ACCEPTED)
+	public void rebuildSearchIndex() {
+		taskSearchService.rebuild();
+	}
+
+	/**
+	 * Streams committed task changes. Reconnecting clients resume with the standard Last-Event-ID header
+	 * or the {@code after} parameter, both holding the sequence of the last change received.
+	 */
+	@GetMapping(value = "/changes", produces = TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+			@RequestParam(required = false) Long after) {
+		SseEmitter emitter = new SseEmitter(changesTimeout.toMillis());
+		Runnable unsubscribe = taskChangeFeed.subscribe(after != null ? after : lastEventId, new TaskChangeSubscriber() {
+			@Override
+			public void send(TaskChange change) throws IOException {
+				emitter.send(SseEmitter.event()
+						.id(Long.toString(change.getSequence()))
+						.name(change.getType().name().toLowerCase())
+						.data(change, MediaType.APPLICATION_JSON));
+			}
+
+			@Override
+			public void complete() {
+				emitter.complete();
+			}
+		});
+		emitter.onCompletion(unsubscribe);
+		emitter.onTimeout(unsubscribe);
+		emitter.onError(e -> unsubscribe.run());
+		return emitter;
+	}
+
+	@GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+	public StreamingResponseBody exportTasks() {
+		ObjectWriter writer = objectMapper.writerFor(TaskView.class)
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		return outputStream -> {
+			int[] rows = {0};
+			taskService.exportTasks(task -> {
+				try {
+					writer.writeValue(outputStream, task);
+					outputStream.write('\n');
+					if (++rows[0] % EXPORT_FLUSH_ROWS == 0) {
+						outputStream.flush();
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			outputStream.flush();
+		};
 	}
 
-	@PostMapping(consumes = APPLICATION_JSON_VALUE)
-	public Task createTask(@RequestBody @Valid CreateTaskDto task) {
-		return taskService.createTask(task);
+	/**
+	 * Clients sending {@code Prefer: respond-async} get 202 with the assigned id as soon as the task is queued,
+	 * if write-behind is enabled; otherwise the preference is ignored and the task is created synchronously.
+	 */
+	@PostMapping(consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+	public ResponseEntity<?> createTask(@RequestBody @Valid CreateTaskDto task,
+			@RequestHeader(value = PREFER, required = false) String prefer) {
+		Optional<UUID> queued = prefer != null && prefer.contains(RESPOND_ASYNC)
+				? taskService.enqueueTask(task)
+				: Optional.empty();
+		if (queued.isPresent()) {
+			UUID id = queued.get();
+			return ResponseEntity.accepted()
+					.location(URI.create("/tasks/" + id))
+					.header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+					.body(new AcceptedTask(id));
+		}
+		return ResponseEntity.ok(taskService.createTask(task));
+	}
+
+	@PostMapping(value = "/import", consumes = APPLICATION_NDJSON_VALUE)
+	public ImportResult importTasks(InputStream ndjson) throws IOException {
+		return taskImportService.importTasks(ndjson);
+	}
+
+	@PostMapping(value = "/batch", consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+	public List<BatchItemResult> createTasks(@RequestBody @NotEmpty List<@Valid CreateTaskDto> tasks) {
+		return taskService.createTasks(tasks);
+	}
+
+	@PatchMapping(value = "/batch", consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+	public List<BatchItemResult> updateTasks(@RequestBody @NotEmpty List<@Valid BatchUpdateTaskDto> tasks) {
+		return taskService.updateTasks(tasks);
+	}
+
+	@DeleteMapping(value = "/batch", consumes = {APPLICATION_JSON_VALUE, APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+	public List<BatchItemResult> deleteTasks(@RequestBody @NotEmpty List<UUID> ids) {
+		return taskService.deleteTasks(ids);
 	}
 
 	@GetMapping("/{id}")
-	public Task getTask(@PathVariable UUID id) {
-		return taskService.getTask(id);
+	public ResponseEntity<Task> getTask(@PathVariable UUID id) {
+		Task task = taskService.getTask(id);
+		return ResponseEntity.ok()
+				.eTag(TaskETags.of(task))
+				.body(task);
 	}
 
 	@PutMapping("/{id}")
-	public Task updateTask(@PathVariable UUID id, @RequestBody @Valid UpdateTaskDto task) {
-		return taskService.updateTask(id, task);
+	public ResponseEntity<Task> updateTask(@PathVariable UUID id, @RequestBody @Valid UpdateTaskDto task,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		Task updated;
+		try {
+			updated = taskService.updateTask(id, task, TaskETags.expectedVersion(id, ifMatch));
+		} catch (TaskNotFountException e) {
+			throw TaskETags.notFound(id, ifMatch, e);
+		}
+		return ResponseEntity.ok()
+				.eTag(TaskETags.of(updated))
+				.body(updated);
 	}
 
 	@DeleteMapping("/{id}")
-	public void deleteTask(@PathVariable UUID id) {
-		taskService.deleteTask(id);
+	public void deleteTask(@PathVariable UUID id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+		try {
+			taskService.deleteTask(id, TaskETags.expectedVersion(id, ifMatch));
+		} catch (TaskNotFountException e) {
+			throw TaskETags.notFound(id, ifMatch, e);
+		}
+	}
+
+	@DeleteMapping("/completed")
+	public int deleteCompletedTasks(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueBefore) {
+		return taskService.deleteCompletedTasks(dueBefore);
+	}
+
+	@ExceptionHandler(OptimisticLockingFailureException.class)
+	@ResponseStatus(HttpStatus.CONFLICT)
+	public void handleConcurrentModification() {
+	}
+
+	// the write-behind queue drains within a few flush intervals
+	@ExceptionHandler(TaskQueueFullException.class)
+	public ResponseEntity<Void> handleQueueFull() {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, QUEUE_FULL_RETRY_AFTER_SECONDS)
+				.build();
+	}
+
+	private static TaskFilter filter(Boolean completed, LocalDate dueFrom, LocalDate dueTo, String titlePrefix,
+			TaskSort sort) {
+		return TaskFilter.builder()
+				.completed(completed)
+				.dueFrom(dueFrom)
+				.dueTo(dueTo)
+				.titlePrefix(titlePrefix)
+				.sort(sort)
+				.build();
 	}
 }
@@ -0,0 +1,53 @@
+package com.github.vitaliiev.t1rest.controller;
+
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskNotFountException;
+import com.github.vitaliiev.t1rest.model.TaskVersionMismatchException;
+import org.springframework.util.DigestUtils;
+
+import java.util.UUID;
+
+/**
+ * Entity tags and {@code If-Match} handling shared by {@link TaskController} and {@link ReactiveTaskController}.
+ */
+final class TaskETags {
+
+	private TaskETags() {
+	}
+
+	// weak, the same version is rendered as JSON, CBOR or Smile and may be compressed; strong ETags also
+	// keep Tomcat from compressing
+	static String of(Task task) {
+		return "W/\"" + task.getVersion() + "\"";
+	}
+
+	// the tag ShallowEtagHeaderFilter writes for the servlet list endpoints
+	static String ofBody(byte[] body) {
+		return "W/\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+	}
+
+	// any If-Match, "*" included, is false without a current representation (RFC 9110, section 13.1.1)
+	static RuntimeException notFound(UUID id, String ifMatch, TaskNotFountException e) {
+		return ifMatch == null ? e : new TaskVersionMismatchException(id);
+	}
+
+	// only a single entity tag or "*" is supported, anything else cannot match a task version. The weak tags
+	// handed out are accepted too: they name the stored version exactly, only its rendering varies
+	static Long expectedVersion(UUID id, String ifMatch) throws TaskVersionMismatchException {
+		if (ifMatch == null || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String tag = ifMatch.trim();
+		if (tag.startsWith("W/")) {
+			tag = tag.substring(2);
+		}
+		if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+			throw new TaskVersionMismatchException(id);
+		}
+		try {
+			return Long.parseLong(tag.substring(1, tag.length() - 1));
+		} catch (NumberFormatException e) {
+			throw new TaskVersionMismatchException(id);
+		}
+	}
+}
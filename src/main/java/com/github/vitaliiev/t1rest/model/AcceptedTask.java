@@ -0,0 +1,12 @@
+package com.github.vitaliiev.t1rest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class AcceptedTask {
+	private UUID id;
+}
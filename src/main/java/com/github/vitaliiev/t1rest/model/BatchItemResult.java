@@ -0,0 +1,22 @@
+package com.github.vitaliiev.t1rest.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@Builder
+public class BatchItemResult {
+	private int index;
+	private UUID id;
+	private BatchItemStatus status;
+
+	public static BatchItemResult of(int index, UUID id, BatchItemStatus status) {
+		return BatchItemResult.builder()
+				.index(index)
+				.id(id)
+				.status(status)
+				.build();
+	}
+}
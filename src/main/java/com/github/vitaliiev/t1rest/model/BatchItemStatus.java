@@ -0,0 +1,8 @@
+package com.github.vitaliiev.t1rest.model;
+
+public enum BatchItemStatus {
+	CREATED,
+	UPDATED,
+	DELETED,
+	NOT_FOUND
+}
@@ -0,0 +1,20 @@
+package com.github.vitaliiev.t1rest.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+public class BatchUpdateTaskDto {
+	@NotNull
+	private UUID id;
+	@Valid
+	@NotNull
+	private UpdateTaskDto changes;
+}
@@ -17,4 +17,13 @@ public class CreateTaskDto {
 	private String description;
 	private LocalDate dueDate;
 	private Boolean completed;
+
+	public Task toTask() {
+		Task task = new Task();
+		task.setTitle(title);
+		task.setDescription(description);
+		task.setDueDate(dueDate == null ? LocalDate.now() : dueDate);
+		task.setCompleted(Boolean.TRUE.equals(completed));
+		return task;
+	}
 }
@@ -0,0 +1,13 @@
+package com.github.vitaliiev.t1rest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+	private List<T> content;
+	private String nextCursor;
+}
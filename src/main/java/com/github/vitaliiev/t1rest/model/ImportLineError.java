@@ -0,0 +1,11 @@
+package com.github.vitaliiev.t1rest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ImportLineError {
+	private long line;
+	private String message;
+}
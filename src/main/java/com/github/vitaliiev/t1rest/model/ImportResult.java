@@ -0,0 +1,14 @@
+package com.github.vitaliiev.t1rest.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@Builder
+public class ImportResult {
+	private long accepted;
+	private long rejected;
+	private List<ImportLineError> errors;
+}
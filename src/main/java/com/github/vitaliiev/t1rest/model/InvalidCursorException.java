@@ -0,0 +1,12 @@
+package com.github.vitaliiev.t1rest.model;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+	public InvalidCursorException(String cursor) {
+		super(String.format("Cursor [%s] is invalid", cursor));
+	}
+}
@@ -0,0 +1,12 @@
+package com.github.vitaliiev.t1rest.model;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPageSizeException extends RuntimeException {
+
+	public InvalidPageSizeException(int size, int maxSize) {
+		super(String.format("Page size [%d] exceeds the maximum of [%d]", size, maxSize));
+	}
+}
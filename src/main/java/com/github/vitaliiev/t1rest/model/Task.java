@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -11,6 +12,12 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
+@DynamicUpdate
+@Table(indexes = {
+		@Index(name = "idx_task_completed_due_date", columnList = "completed, dueDate"),
+		@Index(name = "idx_task_due_date", columnList = "dueDate"),
+		@Index(name = "idx_task_title", columnList = "title")
+})
 public class Task {
 	@Id
 	@GeneratedValue(strategy = GenerationType.UUID)
@@ -19,10 +26,13 @@ public class Task {
 	@Column(nullable = false)
 	private String title;
 	@Lob
+	@Basic(fetch = FetchType.LAZY)
 	@Column(nullable = false)
 	private String description;
 	@NotNull
 	private LocalDate dueDate;
 	@NotNull
 	private Boolean completed;
+	@Version
+	private Long version;
 }
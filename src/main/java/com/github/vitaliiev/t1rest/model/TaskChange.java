@@ -0,0 +1,15 @@
+package com.github.vitaliiev.t1rest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class TaskChange {
+	private long sequence;
+	private TaskChangeType type;
+	private UUID id;
+	private Long version;
+}
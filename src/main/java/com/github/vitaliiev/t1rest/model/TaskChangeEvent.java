@@ -0,0 +1,36 @@
+package com.github.vitaliiev.t1rest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Application event published by the task service for every mutation, delivered to listeners after commit.
+ * {@code previous} and {@code current} hold the task state before and after the change when it is known.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskChangeEvent {
+	private TaskChangeType type;
+	private UUID id;
+	private Long version;
+	private TaskSummary previous;
+	private TaskSummary current;
+
+	public static TaskChangeEvent created(Task task) {
+		return new TaskChangeEvent(TaskChangeType.CREATED, task.getId(), task.getVersion(), null, TaskSummaryDto.of(task));
+	}
+
+	public static TaskChangeEvent updated(TaskSummary previous, Task task) {
+		return new TaskChangeEvent(TaskChangeType.UPDATED, task.getId(), task.getVersion(), previous, TaskSummaryDto.of(task));
+	}
+
+	public static TaskChangeEvent deleted(TaskSummary previous) {
+		return new TaskChangeEvent(TaskChangeType.DELETED, previous.getId(), null, previous, null);
+	}
+
+	public static TaskChangeEvent purged() {
+		return new TaskChangeEvent(TaskChangeType.PURGED, null, null, null, null);
+	}
+}
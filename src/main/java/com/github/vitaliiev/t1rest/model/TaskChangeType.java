@@ -0,0 +1,11 @@
+package com.github.vitaliiev.t1rest.model;
+
+public enum TaskChangeType {
+	CREATED,
+	UPDATED,
+	DELETED,
+	// completed tasks were removed in bulk, individual ids are not reported
+	PURGED,
+	// the requested resume point is no longer buffered, clients should refetch and continue from this sequence
+	RESET
+}
@@ -0,0 +1,47 @@
+package com.github.vitaliiev.t1rest.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque continuation token for keyset pagination. Encodes the sort key ({@code dueDate}, {@code id})
+ * of the last task of a slice, so the next slice is fetched with a seek predicate instead of an offset.
+ */
+@Getter
+@RequiredArgsConstructor
+public class TaskCursor {
+
+	private static final String SEPARATOR = "|";
+
+	private final LocalDate dueDate;
+	private final UUID id;
+
+	public static TaskCursor of(TaskSummary task) {
+		return new TaskCursor(task.getDueDate(), task.getId());
+	}
+
+	public String encode() {
+		String raw = dueDate + SEPARATOR + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static TaskCursor decode(String cursor) throws InvalidCursorException {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			int separator = raw.indexOf(SEPARATOR);
+			if (separator < 0) {
+				throw new InvalidCursorException(cursor);
+			}
+			return new TaskCursor(LocalDate.parse(raw.substring(0, separator)),
+					UUID.fromString(raw.substring(separator + 1)));
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			throw new InvalidCursorException(cursor);
+		}
+	}
+}
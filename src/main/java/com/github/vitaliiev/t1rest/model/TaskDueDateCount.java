@@ -0,0 +1,12 @@
+package com.github.vitaliiev.t1rest.model;
+
+import java.time.LocalDate;
+
+public interface TaskDueDateCount {
+
+	LocalDate getDueDate();
+
+	Boolean getCompleted();
+
+	long getCount();
+}
@@ -0,0 +1,16 @@
+package com.github.vitaliiev.t1rest.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+@Getter
+@Builder
+public class TaskFilter {
+	private Boolean completed;
+	private LocalDate dueFrom;
+	private LocalDate dueTo;
+	private String titlePrefix;
+	private TaskSort sort;
+}
@@ -0,0 +1,12 @@
+package com.github.vitaliiev.t1rest.model;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class TaskQueueFullException extends RuntimeException {
+
+	public TaskQueueFullException() {
+		super("Task write queue is full");
+	}
+}
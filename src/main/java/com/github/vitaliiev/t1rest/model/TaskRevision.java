@@ -0,0 +1,14 @@
+package com.github.vitaliiev.t1rest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Result of an update: the task as it was before and the task as stored now.
+ */
+@Getter
+@AllArgsConstructor
+public class TaskRevision {
+	private TaskSummary previous;
+	private Task current;
+}
@@ -0,0 +1,16 @@
+package com.github.vitaliiev.t1rest.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+@Getter
+@RequiredArgsConstructor
+public enum TaskSort {
+	DUE_DATE(Sort.by(Sort.Direction.ASC, "dueDate", "id")),
+	DUE_DATE_DESC(Sort.by(Sort.Direction.DESC, "dueDate", "id")),
+	TITLE(Sort.by(Sort.Direction.ASC, "title", "id")),
+	TITLE_DESC(Sort.by(Sort.Direction.DESC, "title", "id"));
+
+	private final Sort sort;
+}
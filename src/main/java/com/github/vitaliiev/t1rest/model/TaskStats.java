@@ -0,0 +1,23 @@
+package com.github.vitaliiev.t1rest.model;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Task totals; the due date buckets count open tasks only.
+ */
+@Getter
+@Builder
+public class TaskStats {
+	private long total;
+	private long completed;
+	private long open;
+	private long overdue;
+	private long dueToday;
+	private long dueNextSevenDays;
+	private long dueLater;
+	private long withoutDueDate;
+	private Instant reconciledAt;
+}
@@ -0,0 +1,18 @@
+package com.github.vitaliiev.t1rest.model;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Closed projection of {@link Task} used by list endpoints, so list queries never select the description.
+ */
+public interface TaskSummary {
+
+	UUID getId();
+
+	String getTitle();
+
+	LocalDate getDueDate();
+
+	Boolean getCompleted();
+}
@@ -0,0 +1,20 @@
+package com.github.vitaliiev.t1rest.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class TaskSummaryDto implements TaskSummary {
+	private UUID id;
+	private String title;
+	private LocalDate dueDate;
+	private Boolean completed;
+
+	public static TaskSummaryDto of(Task task) {
+		return new TaskSummaryDto(task.getId(), task.getTitle(), task.getDueDate(), task.getCompleted());
+	}
+}
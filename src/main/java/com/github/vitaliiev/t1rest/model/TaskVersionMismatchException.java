@@ -0,0 +1,14 @@
+package com.github.vitaliiev.t1rest.model;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.UUID;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class TaskVersionMismatchException extends RuntimeException {
+
+	public TaskVersionMismatchException(UUID uuid) {
+		super(String.format("Task with id [%s] does not match the expected version", uuid.toString()));
+	}
+}
@@ -0,0 +1,10 @@
+package com.github.vitaliiev.t1rest.model;
+
+/**
+ * Closed projection of {@link Task} including the description. Backed by query tuples rather than managed
+ * entities, so streaming it does not grow the persistence context.
+ */
+public interface TaskView extends TaskSummary {
+
+	String getDescription();
+}
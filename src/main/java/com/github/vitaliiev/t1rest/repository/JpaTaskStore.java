@@ -0,0 +1,177 @@
+package com.github.vitaliiev.t1rest.repository;
+
+import com.github.vitaliiev.t1rest.model.BatchUpdateTaskDto;
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskCursor;
+import com.github.vitaliiev.t1rest.model.TaskDueDateCount;
+import com.github.vitaliiev.t1rest.model.TaskFilter;
+import com.github.vitaliiev.t1rest.model.TaskRevision;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.TaskSummaryDto;
+import com.github.vitaliiev.t1rest.model.TaskView;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Default {@link TaskStore}, backed by {@link TaskRepository}. Batch methods flush and clear the persistence
+ * context after each call, so callers bound its size by the size of the batches they pass. Methods join the
+ * caller's transaction and start one when called without.
+ */
+@Profile("!memory")
+@Repository
+@Transactional
+@RequiredArgsConstructor
+public class JpaTaskStore implements TaskStore {
+
+	private static final Sort SCROLL_SORT = Sort.by("dueDate", "id");
+
+	private final TaskRepository taskRepository;
+	private final EntityManager entityManager;
+
+	@Override
+	@Transactional(readOnly = true)
+	public Optional<Task> findById(UUID id) {
+		return taskRepository.findById(id).map(JpaTaskStore::loadDescription);
+	}
+
+	@Override
+	public boolean existsById(UUID id) {
+		return taskRepository.existsById(id);
+	}
+
+	@Override
+	public Task save(Task task) {
+		return taskRepository.save(task);
+	}
+
+	@Override
+	public List<Task> saveAll(List<Task> tasks) {
+		List<Task> saved = taskRepository.saveAll(tasks);
+		flushAndClear();
+		return saved;
+	}
+
+	@Override
+	public void insertAll(List<Task> tasks) {
+		taskRepository.insertAll(tasks);
+	}
+
+	@Override
+	public Optional<TaskRevision> updateFields(UUID id, UpdateTaskDto changes, Long expectedVersion) {
+		return taskRepository.updateFields(id, changes, expectedVersion);
+	}
+
+	@Override
+	public List<TaskRevision> updateAll(List<BatchUpdateTaskDto> changes) {
+		Map<UUID, Task> tasks = taskRepository.findAllById(changes.stream().map(BatchUpdateTaskDto::getId).toList())
+				.stream()
+				.collect(Collectors.toMap(Task::getId, Function.identity()));
+		List<TaskRevision> revisions = new ArrayList<>(tasks.size());
+		for (BatchUpdateTaskDto dto : changes) {
+			Task task = tasks.get(dto.getId());
+			if (task != null) {
+				TaskSummary previous = TaskSummaryDto.of(task);
+				revisions.add(new TaskRevision(previous, updateFields(task, dto.getChanges())));
+			}
+		}
+		// versions are incremented on flush
+		flushAndClear();
+		return revisions;
+	}
+
+	@Override
+	public Optional<TaskSummary> deleteReturning(UUID id, Long expectedVersion) {
+		return taskRepository.deleteReturning(id, expectedVersion);
+	}
+
+	@Override
+	public List<TaskSummary> deleteAllReturning(Collection<UUID> ids) {
+		return taskRepository.deleteAllReturning(ids);
+	}
+
+	@Override
+	public int deleteCompletedDueBefore(LocalDate dueBefore) {
+		return taskRepository.deleteCompletedDueBefore(dueBefore);
+	}
+
+	@Override
+	public List<TaskSummary> findSummaries(TaskFilter filter, Pageable pageable, int limit) {
+		return taskRepository.findSummaries(TaskSpecifications.matching(filter), pageable, limit);
+	}
+
+	@Override
+	public long count(TaskFilter filter) {
+		return taskRepository.count(TaskSpecifications.matching(filter));
+	}
+
+	@Override
+	public List<TaskSummary> findSummariesAfter(TaskCursor after, int limit) {
+		PageRequest pageRequest = PageRequest.of(0, limit, SCROLL_SORT);
+		return after == null
+				? taskRepository.findSummariesBy(pageRequest)
+				: taskRepository.findSummariesAfter(after.getDueDate(), after.getId(), pageRequest);
+	}
+
+	@Override
+	public List<TaskView> findViewsByIdIn(Collection<UUID> ids) {
+		return taskRepository.findViewsByIdIn(ids);
+	}
+
+	@Override
+	public void forEach(Consumer<TaskView> consumer) {
+		try (Stream<TaskView> tasks = taskRepository.streamAllBy()) {
+			tasks.forEach(consumer);
+		}
+	}
+
+	@Override
+	public List<TaskDueDateCount> countByDueDateAndCompleted() {
+		return taskRepository.countByDueDateAndCompleted();
+	}
+
+	private void flushAndClear() {
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	// description is fetched lazily, load it while the session is open so the returned task is complete when detached
+	private static Task loadDescription(Task task) {
+		task.getDescription();
+		return task;
+	}
+
+	private static Task updateFields(Task task, UpdateTaskDto updateTaskDto) {
+		if (updateTaskDto.getTitle() != null) {
+			task.setTitle(updateTaskDto.getTitle());
+		}
+		if (updateTaskDto.getDescription() != null) {
+			task.setDescription(updateTaskDto.getDescription());
+		}
+		if (updateTaskDto.getDueDate() != null) {
+			task.setDueDate(updateTaskDto.getDueDate());
+		}
+		if (updateTaskDto.getCompleted() != null) {
+			task.setCompleted(updateTaskDto.getCompleted());
+		}
+		return task;
+	}
+}
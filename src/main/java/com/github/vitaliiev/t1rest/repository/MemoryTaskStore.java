@@ -0,0 +1,448 @@
+package com.github.vitaliiev.t1rest.repository;
+
+import com.github.vitaliiev.t1rest.model.BatchUpdateTaskDto;
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskCursor;
+import com.github.vitaliiev.t1rest.model.TaskDueDateCount;
+import com.github.vitaliiev.t1rest.model.TaskFilter;
+import com.github.vitaliiev.t1rest.model.TaskRevision;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.TaskSummaryDto;
+import com.github.vitaliiev.t1rest.model.TaskView;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * {@link TaskStore} keeping tasks in memory, for ephemeral and test deployments (profile {@code memory}).
+ * <p>
+ * Each task is a single compact byte array in a {@link ConcurrentHashMap}, so the heap holds one small object
+ * per task instead of an entity graph, and summaries decode the fixed-size header and the title only. A skip
+ * list ordered by ({@code dueDate}, {@code id}) serves due date ranges, the default and due date orders and
+ * the scroll cursor; other orders sort the matching tasks.
+ * <p>
+ * Writes to one task are atomic and keep the index in step, but nothing is rolled back with the surrounding
+ * transaction, and scans are weakly consistent: a task moved by a concurrent update may be missed or repeated.
+ */
+@Profile("memory")
+@Repository
+public class MemoryTaskStore implements TaskStore {
+
+	// record layout: version (8) | due date epoch day (8) | completed (1) | title length (4) | title
+	//                | description length (4) | description; null strings have length -1
+	private static final int VERSION = 0;
+	private static final int DUE_DATE = 8;
+	private static final int COMPLETED = 16;
+	private static final int TITLE = 17;
+	private static final int HEADER_SIZE = TITLE;
+
+	private static final long NULL_DATE = Long.MIN_VALUE;
+	private static final byte NULL_BOOLEAN = 2;
+
+	private final ConcurrentHashMap<UUID, byte[]> records = new ConcurrentHashMap<>();
+	private final ConcurrentSkipListSet<Key> dueDateIndex = new ConcurrentSkipListSet<>();
+
+	@Override
+	public Optional<Task> findById(UUID id) {
+		return Optional.ofNullable(records.get(id)).map(record -> toTask(id, record));
+	}
+
+	@Override
+	public boolean existsById(UUID id) {
+		return records.containsKey(id);
+	}
+
+	@Override
+	public Task save(Task task) {
+		if (task.getId() == null) {
+			task.setId(UUID.randomUUID());
+		}
+		task.setVersion(0L);
+		insert(task);
+		return task;
+	}
+
+	@Override
+	public List<Task> saveAll(List<Task> tasks) {
+		return tasks.stream().map(this::save).toList();
+	}
+
+	@Override
+	public void insertAll(List<Task> tasks) {
+		tasks.forEach(this::insert);
+	}
+
+	@Override
+	public Optional<TaskRevision> updateFields(UUID id, UpdateTaskDto changes, Long expectedVersion) {
+		TaskRevision[] revision = new TaskRevision[1];
+		records.computeIfPresent(id, (key, record) -> {
+			if (expectedVersion != null && expectedVersion != version(record)) {
+				return record;
+			}
+			Task previous = toTask(key, record);
+			if (changes.getTitle() == null && changes.getDescription() == null && changes.getDueDate() == null
+					&& changes.getCompleted() == null) {
+				revision[0] = new TaskRevision(TaskSummaryDto.of(previous), previous);
+				return record;
+			}
+			Task current = toTask(key, record);
+			if (changes.getTitle() != null) {
+				current.setTitle(changes.getTitle());
+			}
+			if (changes.getDescription() != null) {
+				current.setDescription(changes.getDescription());
+			}
+			if (changes.getDueDate() != null) {
+				current.setDueDate(changes.getDueDate());
+			}
+			if (changes.getCompleted() != null) {
+				current.setCompleted(changes.getCompleted());
+			}
+			current.setVersion(previous.getVersion() + 1);
+			byte[] updated = encode(current);
+			if (dueDay(updated) != dueDay(record)) {
+				dueDateIndex.add(new Key(dueDay(updated), key));
+				dueDateIndex.remove(new Key(dueDay(record), key));
+			}
+			revision[0] = new TaskRevision(TaskSummaryDto.of(previous), current);
+			return updated;
+		});
+		return Optional.ofNullable(revision[0]);
+	}
+
+	@Override
+	public List<TaskRevision> updateAll(List<BatchUpdateTaskDto> changes) {
+		List<TaskRevision> revisions = new ArrayList<>(changes.size());
+		for (BatchUpdateTaskDto dto : changes) {
+			updateFields(dto.getId(), dto.getChanges(), null).ifPresent(revisions::add);
+		}
+		return revisions;
+	}
+
+	@Override
+	public Optional<TaskSummary> deleteReturning(UUID id, Long expectedVersion) {
+		TaskSummary[] deleted = new TaskSummary[1];
+		records.computeIfPresent(id, (key, record) -> {
+			if (expectedVersion != null && expectedVersion != version(record)) {
+				return record;
+			}
+			dueDateIndex.remove(new Key(dueDay(record), key));
+			deleted[0] = toSummary(key, record);
+			return null;
+		});
+		return Optional.ofNullable(deleted[0]);
+	}
+
+	@Override
+	public List<TaskSummary> deleteAllReturning(Collection<UUID> ids) {
+		List<TaskSummary> deleted = new ArrayList<>();
+		for (UUID id : ids) {
+			deleteReturning(id, null).ifPresent(deleted::add);
+		}
+		return deleted;
+	}
+
+	@Override
+	public int deleteCompletedDueBefore(LocalDate dueBefore) {
+		int[] deleted = new int[1];
+		for (Key key : dueDateIndex.headSet(new Key(dueBefore.toEpochDay(), null))) {
+			records.computeIfPresent(key.id, (id, record) -> {
+				if (dueDay(record) != key.dueDay || record[COMPLETED] != 1) {
+					return record;
+				}
+				dueDateIndex.remove(key);
+				deleted[0]++;
+				return null;
+			});
+		}
+		return deleted[0];
+	}
+
+	@Override
+	public List<TaskSummary> findSummaries(TaskFilter filter, Pageable pageable, int limit) {
+		Sort sort = pageable.getSort();
+		Stream<TaskSummary> matching;
+		if (sort.isUnsorted() || isDueDateOrder(sort, Sort.Direction.ASC)) {
+			matching = scan(filter, false);
+		} else if (isDueDateOrder(sort, Sort.Direction.DESC)) {
+			matching = scan(filter, true);
+		} else {
+			matching = scan(filter, false).sorted(comparator(sort));
+		}
+		return matching.skip(pageable.getOffset())
+				.limit(limit)
+				.toList();
+	}
+
+	@Override
+	public long count(TaskFilter filter) {
+		if (filter.getCompleted() == null && filter.getDueFrom() == null && filter.getDueTo() == null
+				&& (filter.getTitlePrefix() == null || filter.getTitlePrefix().isEmpty())) {
+			return records.mappingCount();
+		}
+		return scan(filter, false).count();
+	}
+
+	@Override
+	public List<TaskSummary> findSummariesAfter(TaskCursor after, int limit) {
+		NavigableSet<Key> keys = after == null
+				? dueDateIndex
+				: dueDateIndex.tailSet(new Key(after.getDueDate().toEpochDay(), after.getId()), false);
+		return summaries(keys).limit(limit).toList();
+	}
+
+	@Override
+	public List<TaskView> findViewsByIdIn(Collection<UUID> ids) {
+		List<TaskView> views = new ArrayList<>(ids.size());
+		for (UUID id : ids) {
+			byte[] record = records.get(id);
+			if (record != null) {
+				views.add(toView(id, record));
+			}
+		}
+		return views;
+	}
+
+	@Override
+	public void forEach(Consumer<TaskView> consumer) {
+		records.forEach((id, record) -> consumer.accept(toView(id, record)));
+	}
+
+	@Override
+	public List<TaskDueDateCount> countByDueDateAndCompleted() {
+		// per due day, one counter for each value of the completed byte: false, true, null
+		Map<Long, long[]> counts = new HashMap<>();
+		records.forEach((id, record) -> counts.computeIfAbsent(dueDay(record), day -> new long[3])[record[COMPLETED]]++);
+		List<TaskDueDateCount> rows = new ArrayList<>();
+		counts.forEach((day, count) -> {
+			for (byte completed = 0; completed < count.length; completed++) {
+				if (count[completed] > 0) {
+					rows.add(new DueDateCount(toDate(day), toBoolean(completed), count[completed]));
+				}
+			}
+		});
+		return rows;
+	}
+
+	private void insert(Task task) {
+		byte[] record = encode(task);
+		records.compute(task.getId(), (id, existing) -> {
+			if (existing != null) {
+				throw new DuplicateKeyException("Task " + id + " already exists");
+			}
+			dueDateIndex.add(new Key(dueDay(record), id));
+			return record;
+		});
+	}
+
+	private Stream<TaskSummary> scan(TaskFilter filter, boolean descending) {
+		NavigableSet<Key> keys = dueDateIndex;
+		if (filter.getDueFrom() != null && filter.getDueTo() != null) {
+			keys = dueDateIndex.subSet(new Key(filter.getDueFrom().toEpochDay(), null), true,
+					new Key(filter.getDueTo().toEpochDay() + 1, null), false);
+		} else if (filter.getDueFrom() != null) {
+			keys = dueDateIndex.tailSet(new Key(filter.getDueFrom().toEpochDay(), null), true);
+		} else if (filter.getDueTo() != null) {
+			keys = dueDateIndex.headSet(new Key(filter.getDueTo().toEpochDay() + 1, null), false);
+		}
+		Stream<TaskSummary> summaries = summaries(descending ? keys.descendingSet() : keys);
+		if (filter.getCompleted() != null) {
+			summaries = summaries.filter(task -> filter.getCompleted().equals(task.getCompleted()));
+		}
+		if (filter.getTitlePrefix() != null && !filter.getTitlePrefix().isEmpty()) {
+			summaries = summaries.filter(task -> task.getTitle() != null
+					&& task.getTitle().startsWith(filter.getTitlePrefix()));
+		}
+		return summaries;
+	}
+
+	// skips index entries whose task was deleted or moved to another day since the key was read
+	private Stream<TaskSummary> summaries(NavigableSet<Key> keys) {
+		return keys.stream()
+				.map(key -> {
+					byte[] record = records.get(key.id);
+					return record != null && dueDay(record) == key.dueDay ? toSummary(key.id, record) : null;
+				})
+				.filter(Objects::nonNull);
+	}
+
+	private static boolean isDueDateOrder(Sort sort, Sort.Direction direction) {
+		List<Sort.Order> orders = sort.toList();
+		return !orders.isEmpty() && orders.size() <= 2
+				&& orders.get(0).getProperty().equals("dueDate") && orders.get(0).getDirection() == direction
+				&& (orders.size() == 1 || orders.get(1).getProperty().equals("id") && orders.get(1).getDirection() == direction);
+	}
+
+	private static Comparator<TaskSummary> comparator(Sort sort) {
+		Comparator<TaskSummary> comparator = null;
+		for (Sort.Order order : sort) {
+			Comparator<TaskSummary> next = switch (order.getProperty()) {
+				case "id" -> Comparator.comparing(TaskSummary::getId);
+				case "title" -> Comparator.comparing(TaskSummary::getTitle, Comparator.nullsLast(Comparator.naturalOrder()));
+				case "dueDate" -> Comparator.comparing(TaskSummary::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()));
+				case "completed" -> Comparator.comparing(TaskSummary::getCompleted, Comparator.nullsLast(Comparator.naturalOrder()));
+				default -> throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+			};
+			if (order.isDescending()) {
+				next = next.reversed();
+			}
+			comparator = comparator == null ? next : comparator.thenComparing(next);
+		}
+		return comparator;
+	}
+
+	private static byte[] encode(Task task) {
+		byte[] title = utf8(task.getTitle());
+		byte[] description = utf8(task.getDescription());
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 4 + length(title) + 4 + length(description));
+		buffer.putLong(task.getVersion() == null ? 0 : task.getVersion());
+		buffer.putLong(task.getDueDate() == null ? NULL_DATE : task.getDueDate().toEpochDay());
+		buffer.put(task.getCompleted() == null ? NULL_BOOLEAN : (byte) (task.getCompleted() ? 1 : 0));
+		putString(buffer, title);
+		putString(buffer, description);
+		return buffer.array();
+	}
+
+	private static long version(byte[] record) {
+		return ByteBuffer.wrap(record).getLong(VERSION);
+	}
+
+	private static long dueDay(byte[] record) {
+		return ByteBuffer.wrap(record).getLong(DUE_DATE);
+	}
+
+	private static TaskSummary toSummary(UUID id, byte[] record) {
+		ByteBuffer buffer = ByteBuffer.wrap(record);
+		return new TaskSummaryDto(id, getString(buffer, TITLE), toDate(buffer.getLong(DUE_DATE)),
+				toBoolean(record[COMPLETED]));
+	}
+
+	private static TaskView toView(UUID id, byte[] record) {
+		ByteBuffer buffer = ByteBuffer.wrap(record);
+		String title = getString(buffer, TITLE);
+		return new View(id, title, toDate(buffer.getLong(DUE_DATE)), toBoolean(record[COMPLETED]),
+				getString(buffer, descriptionOffset(buffer)));
+	}
+
+	private static Task toTask(UUID id, byte[] record) {
+		ByteBuffer buffer = ByteBuffer.wrap(record);
+		Task task = new Task();
+		task.setId(id);
+		task.setVersion(buffer.getLong(VERSION));
+		task.setDueDate(toDate(buffer.getLong(DUE_DATE)));
+		task.setCompleted(toBoolean(record[COMPLETED]));
+		task.setTitle(getString(buffer, TITLE));
+		task.setDescription(getString(buffer, descriptionOffset(buffer)));
+		return task;
+	}
+
+	private static int descriptionOffset(ByteBuffer buffer) {
+		return TITLE + 4 + Math.max(buffer.getInt(TITLE), 0);
+	}
+
+	private static byte[] utf8(String value) {
+		return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static int length(byte[] value) {
+		return value == null ? 0 : value.length;
+	}
+
+	private static void putString(ByteBuffer buffer, byte[] value) {
+		if (value == null) {
+			buffer.putInt(-1);
+		} else {
+			buffer.putInt(value.length);
+			buffer.put(value);
+		}
+	}
+
+	private static String getString(ByteBuffer buffer, int offset) {
+		int length = buffer.getInt(offset);
+		return length < 0 ? null : new String(buffer.array(), offset + 4, length, StandardCharsets.UTF_8);
+	}
+
+	private static LocalDate toDate(long epochDay) {
+		return epochDay == NULL_DATE ? null : LocalDate.ofEpochDay(epochDay);
+	}
+
+	private static Boolean toBoolean(byte value) {
+		return value == NULL_BOOLEAN ? null : value == 1;
+	}
+
+	/**
+	 * Entry of the due date index. A null id sorts before every id of the same day, so it bounds day ranges.
+	 */
+	private static final class Key implements Comparable<Key> {
+		private final long dueDay;
+		private final UUID id;
+
+		private Key(long dueDay, UUID id) {
+			this.dueDay = dueDay;
+			this.id = id;
+		}
+
+		@Override
+		public int compareTo(Key other) {
+			int result = Long.compare(dueDay, other.dueDay);
+			if (result != 0) {
+				return result;
+			}
+			if (id == null || other.id == null) {
+				return id == null ? (other.id == null ? 0 : -1) : 1;
+			}
+			return id.compareTo(other.id);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Key key && dueDay == key.dueDay && Objects.equals(id, key.id);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(dueDay, id);
+		}
+	}
+
+	@Getter
+	@AllArgsConstructor
+	static final class View implements TaskView {
+		private UUID id;
+		private String title;
+		private LocalDate dueDate;
+		private Boolean completed;
+		private String description;
+	}
+
+	@Getter
+	@AllArgsConstructor
+	static final class DueDateCount implements TaskDueDateCount {
+		private LocalDate dueDate;
+		private Boolean completed;
+		private long count;
+	}
+}
@@ -0,0 +1,192 @@
+package com.github.vitaliiev.t1rest.repository;
+
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskFilter;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.TaskSummaryDto;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * R2DBC access to the task table shared with the JPA mapping of {@link Task}. Updates and deletes that report
+ * the previous state read it with {@link #findByIdForUpdate(UUID)} within a reactive transaction.
+ */
+@Profile("reactive")
+@RequiredArgsConstructor
+@Repository
+public class ReactiveTaskRepository {
+
+	// properties of the TaskSort orders
+	private static final Map<String, String> SORT_COLUMNS = Map.of(
+			"id", "id",
+			"title", "title",
+			"dueDate", "due_date");
+
+	private final DatabaseClient databaseClient;
+
+	/**
+	 * Reads the page of summaries matching the same conditions as {@link TaskSpecifications#matching(TaskFilter)}.
+	 */
+	public Flux<TaskSummary> findSummaries(TaskFilter filter, Pageable pageable) {
+		Map<String, Object> parameters = new LinkedHashMap<>();
+		String sql = "select id, title, due_date, completed from task" + where(filter, parameters)
+				+ orderBy(pageable.getSort()) + " offset :offset rows fetch next :limit rows only";
+		return bind(databaseClient.sql(sql), parameters)
+				.bind("limit", pageable.getPageSize())
+				.bind("offset", pageable.getOffset())
+				.map(row -> (TaskSummary) new TaskSummaryDto(
+						row.get("id", UUID.class),
+						row.get("title", String.class),
+						row.get("due_date", LocalDate.class),
+						row.get("completed", Boolean.class)))
+				.all();
+	}
+
+	public Mono<Long> count(TaskFilter filter) {
+		Map<String, Object> parameters = new LinkedHashMap<>();
+		return bind(databaseClient.sql("select count(*) from task" + where(filter, parameters)), parameters)
+				.map(row -> row.get(0, Long.class))
+				.one();
+	}
+
+	public Mono<Task> findById(UUID id) {
+		return databaseClient.sql("select * from task where id = :id")
+				.bind("id", id)
+				.map(ReactiveTaskRepository::toTask)
+				.one();
+	}
+
+	public Mono<Task> insert(Task task) {
+		return databaseClient.sql("insert into task (id, title, description, due_date, completed, version) " +
+						"values (:id, :title, :description, :dueDate, :completed, :version)")
+				.bind("id", task.getId())
+				.bind("title", task.getTitle())
+				.bind("description", task.getDescription())
+				.bind("dueDate", task.getDueDate())
+				.bind("completed", task.getCompleted())
+				.bind("version", task.getVersion())
+				.fetch()
+				.rowsUpdated()
+				.thenReturn(task);
+	}
+
+	/**
+	 * Reads a task and locks its row until the surrounding transaction ends.
+	 */
+	public Mono<Task> findByIdForUpdate(UUID id) {
+		return databaseClient.sql("select * from task where id = :id for update")
+				.bind("id", id)
+				.map(ReactiveTaskRepository::toTask)
+				.one();
+	}
+
+	/**
+	 * Applies the non-null fields of {@code changes} to the task with the given version and increments it.
+	 *
+	 * @return the number of updated rows, 0 if the task does not have this version or nothing changes
+	 */
+	public Mono<Long> updateFields(UUID id, UpdateTaskDto changes, long version) {
+		Map<String, Object> columns = new LinkedHashMap<>();
+		if (changes.getTitle() != null) {
+			columns.put("title", changes.getTitle());
+		}
+		if (changes.getDescription() != null) {
+			columns.put("description", changes.getDescription());
+		}
+		if (changes.getDueDate() != null) {
+			columns.put("due_date", changes.getDueDate());
+		}
+		if (changes.getCompleted() != null) {
+			columns.put("completed", changes.getCompleted());
+		}
+		if (columns.isEmpty()) {
+			return Mono.just(0L);
+		}
+		String assignments = columns.keySet().stream()
+				.map(column -> column + " = :" + column)
+				.collect(Collectors.joining(", "));
+		DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("update task set " + assignments
+				+ ", version = :nextVersion where id = :id and version = :version");
+		for (Map.Entry<String, Object> column : columns.entrySet()) {
+			spec = spec.bind(column.getKey(), column.getValue());
+		}
+		return spec.bind("nextVersion", version + 1)
+				.bind("id", id)
+				.bind("version", version)
+				.fetch()
+				.rowsUpdated();
+	}
+
+	public Mono<Long> deleteById(UUID id) {
+		return databaseClient.sql("delete from task where id = :id")
+				.bind("id", id)
+				.fetch()
+				.rowsUpdated();
+	}
+
+	// the conditions of TaskSpecifications#matching in SQL
+	private static String where(TaskFilter filter, Map<String, Object> parameters) {
+		List<String> conditions = new ArrayList<>();
+		if (filter.getCompleted() != null) {
+			conditions.add("completed = :completed");
+			parameters.put("completed", filter.getCompleted());
+		}
+		if (filter.getDueFrom() != null) {
+			conditions.add("due_date >= :dueFrom");
+			parameters.put("dueFrom", filter.getDueFrom());
+		}
+		if (filter.getDueTo() != null) {
+			conditions.add("due_date <= :dueTo");
+			parameters.put("dueTo", filter.getDueTo());
+		}
+		if (filter.getTitlePrefix() != null && !filter.getTitlePrefix().isEmpty()) {
+			conditions.add("title like :titlePrefix escape '" + TaskSpecifications.LIKE_ESCAPE + "'");
+			parameters.put("titlePrefix", TaskSpecifications.escapeLike(filter.getTitlePrefix()) + "%");
+		}
+		return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+	}
+
+	private static String orderBy(Sort sort) {
+		if (sort.isUnsorted()) {
+			return "";
+		}
+		return sort.stream()
+				.map(order -> SORT_COLUMNS.get(order.getProperty()) + (order.isAscending() ? " asc" : " desc"))
+				.collect(Collectors.joining(", ", " order by ", ""));
+	}
+
+	private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec,
+			Map<String, Object> parameters) {
+		for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+			spec = spec.bind(parameter.getKey(), parameter.getValue());
+		}
+		return spec;
+	}
+
+	private static Task toTask(Readable row) {
+		Task task = new Task();
+		task.setId(row.get("id", UUID.class));
+		task.setTitle(row.get("title", String.class));
+		task.setDescription(row.get("description", String.class));
+		task.setDueDate(row.get("due_date", LocalDate.class));
+		task.setCompleted(row.get("completed", Boolean.class));
+		task.setVersion(row.get("version", Long.class));
+		return task;
+	}
+}
@@ -1,10 +1,42 @@
 package com.github.vitaliiev.t1rest.repository;
 
 import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskDueDateCount;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.TaskView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface TaskRepository extends JpaRepository<Task, UUID> {
+public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task>, TaskRepositoryCustom {
 
+	List<TaskSummary> findSummariesBy(Pageable pageable);
+
+	@Query("select t.id as id, t.title as title, t.dueDate as dueDate, t.completed as completed from Task t " +
+			"where t.dueDate > :dueDate or (t.dueDate = :dueDate and t.id > :id)")
+	List<TaskSummary> findSummariesAfter(@Param("dueDate") LocalDate dueDate, @Param("id") UUID id, Pageable pageable);
+
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+	Stream<TaskView> streamAllBy();
+
+	List<TaskView> findViewsByIdIn(Collection<UUID> ids);
+
+	@Query("select t.dueDate as dueDate, t.completed as completed, count(t) as count from Task t group by t.dueDate, t.completed")
+	List<TaskDueDateCount> countByDueDateAndCompleted();
+
+	@Modifying
+	@Query("delete from Task t where t.completed = true and t.dueDate < :dueBefore")
+	int deleteCompletedDueBefore(@Param("dueBefore") LocalDate dueBefore);
 }
@@ -0,0 +1,57 @@
+package com.github.vitaliiev.t1rest.repository;
+
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskRevision;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface TaskRepositoryCustom {
+
+	/**
+	 * Applies the non-null fields of {@code changes} with an UPDATE touching only those columns, so an unchanged
+	 * description is not rewritten. Two statements without locks: a SELECT of the row, whose previous state is
+	 * needed by change listeners and which includes the description so the returned task is complete, and the
+	 * UPDATE guarded by the version read. The updated task is derived from the row read and the changes. If the
+	 * row changed in between, both are repeated, unless {@code expectedVersion} is set.
+	 *
+	 * @param expectedVersion if not null, the row is only updated while it still has this version
+	 * @return the task before and after the update, or empty if no task with this id and version exists
+	 */
+	Optional<TaskRevision> updateFields(UUID id, UpdateTaskDto changes, Long expectedVersion);
+
+	/**
+	 * Deletes a task, returning its last state. Two statements without locks: a SELECT of the summary columns,
+	 * which change listeners need, and a DELETE guarded by the version read, whose row count decides the outcome.
+	 * If the row changed in between, both are repeated, unless {@code expectedVersion} is set.
+	 *
+	 * @param expectedVersion if not null, the row is only deleted while it still has this version
+	 * @return the deleted task, or empty if no task with this id and version exists
+	 */
+	Optional<TaskSummary> deleteReturning(UUID id, Long expectedVersion);
+
+	/**
+	 * Deletes the tasks with the given ids in one statement and returns those that existed, as read under a lock
+	 * just before.
+	 */
+	List<TaskSummary> deleteAllReturning(Collection<UUID> ids);
+
+	/**
+	 * Inserts tasks whose id and version are already assigned with multi-row INSERT statements, bypassing
+	 * the persistence context. Must be called within a transaction.
+	 */
+	void insertAll(List<Task> tasks);
+
+	/**
+	 * Selects the summary columns of tasks matching {@code spec}, ordered by the sort of {@code pageable} and
+	 * starting at its offset. No count query is issued; {@code limit} may exceed the page size to detect
+	 * a following page. Offsets beyond {@link Integer#MAX_VALUE} select nothing.
+	 */
+	List<TaskSummary> findSummaries(Specification<Task> spec, Pageable pageable, int limit);
+}
@@ -0,0 +1,206 @@
+package com.github.vitaliiev.t1rest.repository;
+
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskRevision;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.TaskSummaryDto;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@RequiredArgsConstructor
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+	// 6 parameters per row, keeps statements well below driver and database parameter limits
+	private static final int INSERT_ROWS_PER_STATEMENT = 100;
+
+	private final EntityManager entityManager;
+
+	@Override
+	public Optional<TaskRevision> updateFields(UUID id, UpdateTaskDto changes, Long expectedVersion) {
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		if (changes.getTitle() != null) {
+			attributes.put("title", changes.getTitle());
+		}
+		if (changes.getDescription() != null) {
+			attributes.put("description", changes.getDescription());
+		}
+		if (changes.getDueDate() != null) {
+			attributes.put("dueDate", changes.getDueDate());
+		}
+		if (changes.getCompleted() != null) {
+			attributes.put("completed", changes.getCompleted());
+		}
+		String assignments = attributes.keySet().stream()
+				.map(attribute -> "t." + attribute + " = :" + attribute)
+				.collect(Collectors.joining(", "));
+		while (true) {
+			Optional<Task> read = read(id, true)
+					.filter(task -> expectedVersion == null || expectedVersion.equals(task.getVersion()));
+			if (read.isEmpty()) {
+				return Optional.empty();
+			}
+			Task previous = read.get();
+			if (attributes.isEmpty()) {
+				return Optional.of(new TaskRevision(TaskSummaryDto.of(previous), previous));
+			}
+			Query update = entityManager.createQuery("update Task t set " + assignments
+					+ ", t.version = t.version + 1 where t.id = :id and t.version = :version");
+			attributes.forEach(update::setParameter);
+			update.setParameter("id", id);
+			update.setParameter("version", previous.getVersion());
+			if (update.executeUpdate() == 1) {
+				return Optional.of(new TaskRevision(TaskSummaryDto.of(previous), applyChanges(previous, changes)));
+			}
+			if (expectedVersion != null) {
+				return Optional.empty();
+			}
+			// changed or deleted since it was read, apply the changes to what is stored now
+		}
+	}
+
+	@Override
+	public Optional<TaskSummary> deleteReturning(UUID id, Long expectedVersion) {
+		while (true) {
+			Optional<Task> read = read(id, false)
+					.filter(task -> expectedVersion == null || expectedVersion.equals(task.getVersion()));
+			if (read.isEmpty()) {
+				return Optional.empty();
+			}
+			int deleted = entityManager.createQuery("delete from Task t where t.id = :id and t.version = :version")
+					.setParameter("id", id)
+					.setParameter("version", read.get().getVersion())
+					.executeUpdate();
+			if (deleted == 1) {
+				return read.map(TaskSummaryDto::of);
+			}
+			if (expectedVersion != null) {
+				return Optional.empty();
+			}
+			// changed or deleted since it was read, the next read tells which
+		}
+	}
+
+	@Override
+	public List<TaskSummary> deleteAllReturning(Collection<UUID> ids) {
+		// locked in id order, so concurrent batches cannot deadlock on each other
+		List<Task> tasks = entityManager.createQuery("select t from Task t where t.id in :ids order by t.id", Task.class)
+				.setLockMode(LockModeType.PESSIMISTIC_WRITE)
+				.setParameter("ids", ids)
+				.getResultList();
+		if (tasks.isEmpty()) {
+			return List.of();
+		}
+		List<TaskSummary> deleted = tasks.stream()
+				.map(task -> (TaskSummary) TaskSummaryDto.of(task))
+				.toList();
+		tasks.forEach(entityManager::detach);
+		entityManager.createQuery("delete from Task t where t.id in :ids")
+				.setParameter("ids", deleted.stream().map(TaskSummary::getId).toList())
+				.executeUpdate();
+		return deleted;
+	}
+
+	@Override
+	public void insertAll(List<Task> tasks) {
+		for (int from = 0; from < tasks.size(); from += INSERT_ROWS_PER_STATEMENT) {
+			List<Task> chunk = tasks.subList(from, Math.min(from + INSERT_ROWS_PER_STATEMENT, tasks.size()));
+			String values = IntStream.range(0, chunk.size())
+					.mapToObj(i -> "(:id" + i + ", :title" + i + ", :description" + i + ", :dueDate" + i
+							+ ", :completed" + i + ", :version" + i + ")")
+					.collect(Collectors.joining(", "));
+			Query query = entityManager.createNativeQuery(
+					"insert into task (id, title, description, due_date, completed, version) values " + values);
+			for (int i = 0; i < chunk.size(); i++) {
+				Task task = chunk.get(i);
+				query.setParameter("id" + i, task.getId());
+				query.setParameter("title" + i, task.getTitle());
+				query.setParameter("description" + i, task.getDescription());
+				query.setParameter("dueDate" + i, task.getDueDate());
+				query.setParameter("completed" + i, task.getCompleted());
+				query.setParameter("version" + i, task.getVersion());
+			}
+			query.executeUpdate();
+		}
+	}
+
+	@Override
+	public List<TaskSummary> findSummaries(Specification<Task> spec, Pageable pageable, int limit) {
+		// JPA offsets are ints, a page past that cannot have rows anyway
+		if (pageable.getOffset() > Integer.MAX_VALUE) {
+			return List.of();
+		}
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<Task> root = query.from(Task.class);
+		query.multiselect(root.get("id"), root.get("title"), root.get("dueDate"), root.get("completed"));
+		Predicate predicate = spec.toPredicate(root, query, cb);
+		if (predicate != null) {
+			query.where(predicate);
+		}
+		query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+		return entityManager.createQuery(query)
+				.setFirstResult((int) pageable.getOffset())
+				.setMaxResults(limit)
+				.getResultStream()
+				.map(row -> (TaskSummary) new TaskSummaryDto(
+						row.get(0, UUID.class),
+						row.get(1, String.class),
+						row.get(2, LocalDate.class),
+						row.get(3, Boolean.class)))
+				.toList();
+	}
+
+	// plain SELECT of the row into a detached task, the description only when asked for
+	private Optional<Task> read(UUID id, boolean withDescription) {
+		return entityManager.createQuery("select t.id, t.title, t.dueDate, t.completed, t.version"
+						+ (withDescription ? ", t.description" : "") + " from Task t where t.id = :id", Tuple.class)
+				.setParameter("id", id)
+				.getResultStream()
+				.findFirst()
+				.map(row -> {
+					Task task = new Task();
+					task.setId(row.get(0, UUID.class));
+					task.setTitle(row.get(1, String.class));
+					task.setDueDate(row.get(2, LocalDate.class));
+					task.setCompleted(row.get(3, Boolean.class));
+					task.setVersion(row.get(4, Long.class));
+					if (withDescription) {
+						task.setDescription(row.get(5, String.class));
+					}
+					return task;
+				});
+	}
+
+	// the state the version-guarded UPDATE produced from the row it was applied to
+	private static Task applyChanges(Task previous, UpdateTaskDto changes) {
+		Task task = new Task();
+		task.setId(previous.getId());
+		task.setTitle(changes.getTitle() != null ? changes.getTitle() : previous.getTitle());
+		task.setDescription(changes.getDescription() != null ? changes.getDescription() : previous.getDescription());
+		task.setDueDate(changes.getDueDate() != null ? changes.getDueDate() : previous.getDueDate());
+		task.setCompleted(changes.getCompleted() != null ? changes.getCompleted() : previous.getCompleted());
+		task.setVersion(previous.getVersion() + 1);
+		return task;
+	}
+}
@@ -0,0 +1,46 @@
+package com.github.vitaliiev.t1rest.repository;
+
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskFilter;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class TaskSpecifications {
+
+	static final char LIKE_ESCAPE = '\\';
+
+	private TaskSpecifications() {
+	}
+
+	/**
+	 * Translates a {@link TaskFilter} into predicates served by the {@code (completed, dueDate)},
+	 * {@code dueDate} and {@code title} indexes declared on {@link Task}.
+	 */
+	public static Specification<Task> matching(TaskFilter filter) {
+		return (root, query, cb) -> {
+			List<Predicate> predicates = new ArrayList<>();
+			if (filter.getCompleted() != null) {
+				predicates.add(cb.equal(root.get("completed"), filter.getCompleted()));
+			}
+			if (filter.getDueFrom() != null) {
+				predicates.add(cb.greaterThanOrEqualTo(root.get("dueDate"), filter.getDueFrom()));
+			}
+			if (filter.getDueTo() != null) {
+				predicates.add(cb.lessThanOrEqualTo(root.get("dueDate"), filter.getDueTo()));
+			}
+			if (filter.getTitlePrefix() != null && !filter.getTitlePrefix().isEmpty()) {
+				predicates.add(cb.like(root.get("title"), escapeLike(filter.getTitlePrefix()) + "%", LIKE_ESCAPE));
+			}
+			return cb.and(predicates.toArray(Predicate[]::new));
+		};
+	}
+
+	static String escapeLike(String value) {
+		return value.replace("\\", "\\\\")
+				.replace("%", "\\%")
+				.replace("_", "\\_");
+	}
+}
@@ -0,0 +1,94 @@
+package com.github.vitaliiev.t1rest.repository;
+
+import com.github.vitaliiev.t1rest.model.BatchUpdateTaskDto;
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskCursor;
+import com.github.vitaliiev.t1rest.model.TaskDueDateCount;
+import com.github.vitaliiev.t1rest.model.TaskFilter;
+import com.github.vitaliiev.t1rest.model.TaskRevision;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.TaskView;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Storage SPI used by the task services. {@link JpaTaskStore} keeps tasks in the database and is the default;
+ * {@link MemoryTaskStore} keeps them in memory and is selected with the {@code memory} profile.
+ * <p>
+ * Methods are called within a transaction started by the caller. Returned tasks are complete, including the
+ * description, and stay usable after the transaction ended.
+ */
+public interface TaskStore {
+
+	Optional<Task> findById(UUID id);
+
+	boolean existsById(UUID id);
+
+	/**
+	 * Stores a new task, assigning its id and initial version.
+	 */
+	Task save(Task task);
+
+	List<Task> saveAll(List<Task> tasks);
+
+	/**
+	 * Stores tasks whose id and version are already assigned.
+	 */
+	void insertAll(List<Task> tasks);
+
+	/**
+	 * Applies the non-null fields of {@code changes}.
+	 *
+	 * @param expectedVersion if not null, the task is only updated while it still has this version
+	 * @return the task before and after the update, or empty if no task with this id and version exists
+	 */
+	Optional<TaskRevision> updateFields(UUID id, UpdateTaskDto changes, Long expectedVersion);
+
+	/**
+	 * Applies each item's changes without a version check; items of missing tasks are skipped.
+	 */
+	List<TaskRevision> updateAll(List<BatchUpdateTaskDto> changes);
+
+	/**
+	 * @param expectedVersion if not null, the task is only deleted while it still has this version
+	 * @return the deleted task, or empty if no task with this id and version exists
+	 */
+	Optional<TaskSummary> deleteReturning(UUID id, Long expectedVersion);
+
+	/**
+	 * Deletes the tasks with the given ids and returns those that existed.
+	 */
+	List<TaskSummary> deleteAllReturning(Collection<UUID> ids);
+
+	int deleteCompletedDueBefore(LocalDate dueBefore);
+
+	/**
+	 * Summaries of tasks matching {@code filter}, ordered by the sort of {@code pageable} and starting at its
+	 * offset. {@code limit} may exceed the page size to detect a following page.
+	 */
+	List<TaskSummary> findSummaries(TaskFilter filter, Pageable pageable, int limit);
+
+	long count(TaskFilter filter);
+
+	/**
+	 * Summaries ordered by ({@code dueDate}, {@code id}), starting right after {@code after}, or at the first
+	 * task if it is null.
+	 */
+	List<TaskSummary> findSummariesAfter(TaskCursor after, int limit);
+
+	List<TaskView> findViewsByIdIn(Collection<UUID> ids);
+
+	/**
+	 * Hands every task to {@code consumer} without holding all of them in memory.
+	 */
+	void forEach(Consumer<TaskView> consumer);
+
+	List<TaskDueDateCount> countByDueDateAndCompleted();
+}
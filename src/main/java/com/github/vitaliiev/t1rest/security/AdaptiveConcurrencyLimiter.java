@@ -0,0 +1,94 @@
+package com.github.vitaliiev.t1rest.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the requests in flight at a limit derived from latency, after the gradient algorithm: the limit is scaled by
+ * the ratio of the long-term latency baseline to the recent latency and grows by its square root while the two
+ * agree, so it shrinks as soon as requests start queueing for threads, connections or the database.
+ * <p>
+ * Acquiring is a compare-and-set on the in-flight counter; only the limit update on a completed request is
+ * serialized.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	private static final int WARMUP_SAMPLES = 10;
+	private static final double LONG_WINDOW = 600;
+	private static final double SHORT_WINDOW = 10;
+	// latency may exceed the baseline by this factor before the limit is reduced
+	private static final double TOLERANCE = 1.5;
+	private static final double SMOOTHING = 0.2;
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private volatile int limit;
+
+	private double estimatedLimit;
+	private double longRtt;
+	private double shortRtt;
+	private long samples;
+
+	public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.estimatedLimit = initialLimit;
+		this.limit = initialLimit;
+	}
+
+	public boolean tryAcquire() {
+		while (true) {
+			int current = inFlight.get();
+			if (current >= limit) {
+				return false;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Returns a permit taken with {@link #tryAcquire()}.
+	 *
+	 * @param rttNanos the request's latency, or a negative value if it must not be sampled, such as for failed
+	 *                 or asynchronous requests
+	 */
+	public void release(long rttNanos) {
+		int inFlightBefore = inFlight.getAndDecrement();
+		if (rttNanos >= 0) {
+			onSample(rttNanos, inFlightBefore);
+		}
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public int getInFlight() {
+		return inFlight.get();
+	}
+
+	private synchronized void onSample(long rttNanos, int inFlightBefore) {
+		samples++;
+		if (samples <= WARMUP_SAMPLES) {
+			longRtt += (rttNanos - longRtt) / samples;
+			shortRtt = longRtt;
+			return;
+		}
+		longRtt += (rttNanos - longRtt) / LONG_WINDOW;
+		shortRtt += (rttNanos - shortRtt) / SHORT_WINDOW;
+		// a baseline inflated by a past overload recovers once latency is low again
+		if (longRtt / shortRtt > 2) {
+			longRtt *= 0.95;
+		}
+		// far below the limit, latency tells nothing about where the limit should be
+		if (inFlightBefore < estimatedLimit / 2) {
+			return;
+		}
+		double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+		double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+		estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+		limit = (int) estimatedLimit;
+	}
+}
@@ -0,0 +1,112 @@
+package com.github.vitaliiev.t1rest.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Admission control ahead of any controller or database work. A client over its rate gets 429 and one arriving
+ * while the concurrency limit is reached gets 503, both with {@code Retry-After}. Clients are told apart by
+ * {@link #user} behind authentication or by {@link #address}; failed logins are limited in front of it by
+ * {@link AuthenticationFailureLimitFilter}. Actuator endpoints are exempt, so probes and scrapes keep working while
+ * requests are shed.
+ * <p>
+ * Either limiter may be null when disabled.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+	static final String ACTUATOR_PATH = "/actuator/";
+	private static final long SHED_RETRY_AFTER_SECONDS = 1;
+
+	private final RateLimiter rateLimiter;
+	private final Function<HttpServletRequest, String> client;
+	private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+	private final Counter rateLimited;
+	private final Counter shed;
+
+	public AdmissionControlFilter(RateLimiter rateLimiter, Function<HttpServletRequest, String> client,
+			AdaptiveConcurrencyLimiter concurrencyLimiter, MeterRegistry meterRegistry) {
+		this.rateLimiter = rateLimiter;
+		this.client = client;
+		this.concurrencyLimiter = concurrencyLimiter;
+		this.rateLimited = Counter.builder("http.server.requests.rejected")
+				.tag("reason", "rate-limit")
+				.register(meterRegistry);
+		this.shed = Counter.builder("http.server.requests.rejected")
+				.tag("reason", "concurrency-limit")
+				.register(meterRegistry);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return request.getRequestURI().startsWith(request.getContextPath() + ACTUATOR_PATH);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (rateLimiter != null) {
+			long waitNanos = rateLimiter.tryAcquire(client.apply(request));
+			if (waitNanos > 0) {
+				rateLimited.increment();
+				reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(waitNanos));
+				return;
+			}
+		}
+		if (concurrencyLimiter == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		if (!concurrencyLimiter.tryAcquire()) {
+			shed.increment();
+			reject(response, HttpStatus.SERVICE_UNAVAILABLE, SHED_RETRY_AFTER_SECONDS);
+			return;
+		}
+		long start = System.nanoTime();
+		long rtt = -1;
+		try {
+			filterChain.doFilter(request, response);
+			// streaming responses return early and would understate latency
+			if (!request.isAsyncStarted()) {
+				rtt = System.nanoTime() - start;
+			}
+		} finally {
+			concurrencyLimiter.release(rtt);
+		}
+	}
+
+	public static String address(HttpServletRequest request) {
+		return "address:" + request.getRemoteAddr();
+	}
+
+	/**
+	 * The authenticated user, or the remote address when the request is anonymous.
+	 */
+	public static String user(HttpServletRequest request) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		return authentication != null && authentication.isAuthenticated()
+				? "user:" + authentication.getName()
+				: address(request);
+	}
+
+	static long retryAfterSeconds(long waitNanos) {
+		return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+	}
+
+	static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds) {
+		response.setStatus(status.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+	}
+}
@@ -0,0 +1,57 @@
+package com.github.vitaliiev.t1rest.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rate limits failed authentication per remote address in front of authentication, so password guessing and the
+ * BCrypt checks it costs are throttled, while authenticated traffic from one address, such as a gateway or a bulk
+ * ingestion client, is never charged. An address is charged a permit for every 401 and gets 429 with
+ * {@code Retry-After} while it has none left. Attempts in flight are admitted before any of them is charged, so an
+ * address can exceed its rate by its concurrent attempts. Actuator endpoints are exempt.
+ * <p>
+ * The limiter may be null when disabled.
+ */
+public class AuthenticationFailureLimitFilter extends OncePerRequestFilter {
+
+	private final RateLimiter rateLimiter;
+	private final Counter rateLimited;
+
+	public AuthenticationFailureLimitFilter(RateLimiter rateLimiter, MeterRegistry meterRegistry) {
+		this.rateLimiter = rateLimiter;
+		this.rateLimited = Counter.builder("http.server.requests.rejected")
+				.tag("reason", "rate-limit")
+				.register(meterRegistry);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return rateLimiter == null
+				|| request.getRequestURI().startsWith(request.getContextPath() + AdmissionControlFilter.ACTUATOR_PATH);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String address = AdmissionControlFilter.address(request);
+		long waitNanos = rateLimiter.waitNanos(address);
+		if (waitNanos > 0) {
+			rateLimited.increment();
+			AdmissionControlFilter.reject(response, HttpStatus.TOO_MANY_REQUESTS,
+					AdmissionControlFilter.retryAfterSeconds(waitNanos));
+			return;
+		}
+		filterChain.doFilter(request, response);
+		if (response.getStatus() == HttpStatus.UNAUTHORIZED.value()) {
+			rateLimiter.tryAcquire(address);
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package com.github.vitaliiev.t1rest.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Remembers successful username/password authentications for a limited time, so repeated HTTP Basic requests
+ * with the same credentials skip the password encoder. Entries are keyed by an HMAC of the credentials under a
+ * per-process random key; plain passwords are never stored and failed attempts are never cached.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+	private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+	private final AuthenticationProvider delegate;
+	private final Cache<String, Authentication> cache;
+	private final SecretKeySpec key;
+
+	public CachingAuthenticationProvider(AuthenticationProvider delegate, Duration ttl, long maxSize) {
+		this.delegate = delegate;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(ttl)
+				.build();
+		byte[] secret = new byte[32];
+		new SecureRandom().nextBytes(secret);
+		this.key = new SecretKeySpec(secret, HMAC_ALGORITHM);
+	}
+
+	@Override
+	public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+		if (!(authentication instanceof UsernamePasswordAuthenticationToken) || authentication.getCredentials() == null) {
+			return delegate.authenticate(authentication);
+		}
+		String cacheKey = cacheKey(authentication.getName(), authentication.getCredentials().toString());
+		Authentication cached = cache.getIfPresent(cacheKey);
+		if (cached != null) {
+			return cached;
+		}
+		Authentication result = delegate.authenticate(authentication);
+		if (result != null && result.isAuthenticated()) {
+			cache.put(cacheKey, result);
+		}
+		return result;
+	}
+
+	@Override
+	public boolean supports(Class<?> authentication) {
+		return delegate.supports(authentication);
+	}
+
+	private String cacheKey(String username, String password) {
+		try {
+			Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+			mac.init(key);
+			mac.update(username.getBytes(StandardCharsets.UTF_8));
+			mac.update((byte) 0);
+			return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
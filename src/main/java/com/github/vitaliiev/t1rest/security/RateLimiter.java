@@ -0,0 +1,70 @@
+package com.github.vitaliiev.t1rest.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per client, refilled at {@code permitsPerSecond} up to {@code burst} permits. A bucket is a single
+ * long, the time at which it would be full again (generic cell rate algorithm), advanced with compare-and-set, so
+ * taking a permit never blocks. Buckets are kept in a cache bounded to {@code maxClients} entries and expire once
+ * idle long enough to have refilled completely, at which point dropping them loses nothing.
+ */
+public class RateLimiter {
+
+	private final long nanosPerPermit;
+	private final long burstNanos;
+	private final Cache<String, AtomicLong> buckets;
+	private final LongSupplier nanoClock;
+
+	public RateLimiter(double permitsPerSecond, int burst, long maxClients) {
+		this(permitsPerSecond, burst, maxClients, System::nanoTime);
+	}
+
+	RateLimiter(double permitsPerSecond, int burst, long maxClients, LongSupplier nanoClock) {
+		this.nanosPerPermit = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+		this.burstNanos = nanosPerPermit * burst;
+		this.nanoClock = nanoClock;
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(maxClients)
+				.expireAfterAccess(Duration.ofNanos(burstNanos))
+				.build();
+	}
+
+	/**
+	 * @return 0 if a permit was taken, otherwise the nanoseconds until the client's next permit is available
+	 */
+	public long tryAcquire(String client) {
+		AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+		long now = nanoClock.getAsLong();
+		while (true) {
+			long current = fullAt.get();
+			long next = Math.max(current, now) + nanosPerPermit;
+			long wait = next - now - burstNanos;
+			if (wait > 0) {
+				return wait;
+			}
+			if (fullAt.compareAndSet(current, next)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Like {@link #tryAcquire(String)} without taking the permit.
+	 *
+	 * @return 0 if the client has a permit available, otherwise the nanoseconds until it has one
+	 */
+	public long waitNanos(String client) {
+		AtomicLong fullAt = buckets.getIfPresent(client);
+		if (fullAt == null) {
+			return 0;
+		}
+		long now = nanoClock.getAsLong();
+		return Math.max(0, Math.max(fullAt.get(), now) + nanosPerPermit - now - burstNanos);
+	}
+}
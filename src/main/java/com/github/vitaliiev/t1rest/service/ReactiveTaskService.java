@@ -0,0 +1,52 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.model.InvalidPageSizeException;
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskFilter;
+import com.github.vitaliiev.t1rest.model.TaskNotFountException;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.TaskVersionMismatchException;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.data.domain.Page;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of {@link TaskService} for the reactive profile. Lookups of missing tasks
+ * complete with {@link TaskNotFountException}.
+ */
+@Validated
+public interface ReactiveTaskService {
+
+	/**
+	 * @param size page size, the configured default when null
+	 * @return the page, or {@link InvalidPageSizeException} if {@code size} exceeds the configured maximum
+	 */
+	@Validated
+	Mono<Page<TaskSummary>> getTasks(Integer page, @Positive Integer size, @NotNull TaskFilter filter);
+
+	@Validated
+	Mono<Task> createTask(@Valid @NotNull CreateTaskDto createTaskDto);
+
+	@Validated
+	Mono<Task> getTask(@NotNull UUID id);
+
+	/**
+	 * @param expectedVersion the version the task must have, any when null
+	 * @return the updated task, or {@link TaskVersionMismatchException} if it has another version
+	 */
+	@Validated
+	Mono<Task> updateTask(@NotNull UUID id, @Valid @NotNull UpdateTaskDto updateTaskDto, Long expectedVersion);
+
+	/**
+	 * @param expectedVersion the version the task must have, any when null
+	 */
+	@Validated
+	Mono<Void> deleteTask(@NotNull UUID id, Long expectedVersion);
+}
@@ -0,0 +1,105 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.model.InvalidPageSizeException;
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskChangeEvent;
+import com.github.vitaliiev.t1rest.model.TaskFilter;
+import com.github.vitaliiev.t1rest.model.TaskNotFountException;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.TaskSummaryDto;
+import com.github.vitaliiev.t1rest.model.TaskVersionMismatchException;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import com.github.vitaliiev.t1rest.repository.ReactiveTaskRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalEventPublisher;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Writes run in a reactive transaction and publish the same {@link TaskChangeEvent}s as {@link TaskServiceImpl},
+ * so the change feed, the stats counters, the search index and the task cache follow changes made through
+ * the reactive API.
+ */
+@Profile("reactive")
+@RequiredArgsConstructor
+@Service
+public class ReactiveTaskServiceImpl implements ReactiveTaskService {
+
+	private final ReactiveTaskRepository taskRepository;
+	private final TransactionalOperator transactionalOperator;
+	private final TransactionalEventPublisher eventPublisher;
+
+	@Value("${t1rest.paging.default-size:100}")
+	private int defaultPageSize;
+
+	@Value("${t1rest.paging.max-size:500}")
+	private int maxPageSize;
+
+	@Override
+	public Mono<Page<TaskSummary>> getTasks(Integer page, Integer size, TaskFilter filter) {
+		if (size != null && size > maxPageSize) {
+			return Mono.error(new InvalidPageSizeException(size, maxPageSize));
+		}
+		Sort sort = filter.getSort() == null ? Sort.unsorted() : filter.getSort().getSort();
+		PageRequest pageRequest = PageRequest.of(page == null ? 0 : page, size == null ? defaultPageSize : size, sort);
+		return taskRepository.findSummaries(filter, pageRequest)
+				.collectList()
+				// the total is only queried when it cannot be derived from a partial page, as PageableExecutionUtils does
+				.flatMap(content -> content.size() < pageRequest.getPageSize()
+						&& (pageRequest.getOffset() == 0 || !content.isEmpty())
+						? Mono.just(new PageImpl<>(content, pageRequest, pageRequest.getOffset() + content.size()))
+						: taskRepository.count(filter).map(total -> new PageImpl<>(content, pageRequest, total)));
+	}
+
+	@Override
+	public Mono<Task> createTask(CreateTaskDto createTaskDto) {
+		Task task = createTaskDto.toTask();
+		task.setId(UUID.randomUUID());
+		task.setVersion(0L);
+		return taskRepository.insert(task)
+				.flatMap(created -> eventPublisher.publishEvent(TaskChangeEvent.created(created)).thenReturn(created))
+				.as(transactionalOperator::transactional);
+	}
+
+	@Override
+	public Mono<Task> getTask(UUID id) {
+		return taskRepository.findById(id)
+				.switchIfEmpty(Mono.error(() -> new TaskNotFountException(id)));
+	}
+
+	@Override
+	public Mono<Task> updateTask(UUID id, UpdateTaskDto updateTaskDto, Long expectedVersion) {
+		return findForUpdate(id, expectedVersion)
+				.flatMap(previous -> taskRepository.updateFields(id, updateTaskDto, previous.getVersion())
+						.then(taskRepository.findById(id))
+						.flatMap(current -> eventPublisher
+								.publishEvent(TaskChangeEvent.updated(TaskSummaryDto.of(previous), current))
+								.thenReturn(current)))
+				.as(transactionalOperator::transactional);
+	}
+
+	@Override
+	public Mono<Void> deleteTask(UUID id, Long expectedVersion) {
+		return findForUpdate(id, expectedVersion)
+				.flatMap(deleted -> taskRepository.deleteById(id)
+						.then(eventPublisher.publishEvent(TaskChangeEvent.deleted(TaskSummaryDto.of(deleted)))))
+				.as(transactionalOperator::transactional);
+	}
+
+	private Mono<Task> findForUpdate(UUID id, Long expectedVersion) {
+		return taskRepository.findByIdForUpdate(id)
+				.switchIfEmpty(Mono.error(() -> new TaskNotFountException(id)))
+				.filter(task -> expectedVersion == null || expectedVersion.equals(task.getVersion()))
+				.switchIfEmpty(Mono.error(() -> new TaskVersionMismatchException(id)));
+	}
+}
@@ -0,0 +1,100 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.vitaliiev.t1rest.config.CacheConfig;
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskChangeEvent;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of single tasks, stored in {@link CacheConfig#TASKS_CACHE}. Callers get their own copy of
+ * the cached task.
+ * <p>
+ * Committed changes evict the task and leave the new version as a marker in a separate map, deletes a version
+ * no task reaches. A read that loaded an older row before the change committed, but finishes after it, then
+ * cannot put that row back. Markers are kept out of the task cache, so its hit and miss statistics count only
+ * real hits and real loads. Purges do not report the deleted ids, they clear the cache and discard the results
+ * of loads that started before.
+ */
+@Component
+public class TaskCache {
+
+	private static final long DELETED = Long.MAX_VALUE;
+	// markers only have to outlive the loads in flight when they were set
+	private static final Duration MARKER_TTL = Duration.ofMinutes(1);
+	private static final long MAX_MARKERS = 100_000;
+
+	private final Cache<Object, Object> cache;
+	private final Cache<UUID, Long> minVersions = Caffeine.newBuilder()
+			.expireAfterWrite(MARKER_TTL)
+			.maximumSize(MAX_MARKERS)
+			.build();
+	private final AtomicLong generation = new AtomicLong();
+
+	@SuppressWarnings("unchecked")
+	public TaskCache(CacheManager cacheManager) {
+		this.cache = (Cache<Object, Object>) Objects.requireNonNull(cacheManager.getCache(CacheConfig.TASKS_CACHE))
+				.getNativeCache();
+	}
+
+	public Optional<Task> get(UUID id, Supplier<Optional<Task>> loader) {
+		if (cache.getIfPresent(id) instanceof Task cached) {
+			return Optional.of(copy(cached));
+		}
+		long loadGeneration = generation.get();
+		Optional<Task> loaded = loader.get();
+		loaded.ifPresent(task -> {
+			Task fresh = copy(task);
+			cache.asMap().compute(id, (key, existing) ->
+					loadGeneration == generation.get() && supersedes(fresh, (Task) existing) ? fresh : existing);
+		});
+		return loaded;
+	}
+
+	@TransactionalEventListener
+	public void onTaskChange(TaskChangeEvent event) {
+		switch (event.getType()) {
+			case UPDATED -> mark(event.getId(), event.getVersion());
+			case DELETED -> mark(event.getId(), DELETED);
+			case PURGED -> {
+				generation.incrementAndGet();
+				cache.invalidateAll();
+			}
+			default -> {
+			}
+		}
+	}
+
+	// the marker is set before the eviction, a load putting in between already sees it
+	private void mark(UUID id, long version) {
+		minVersions.asMap().merge(id, version, Math::max);
+		cache.asMap().computeIfPresent(id, (key, existing) -> ((Task) existing).getVersion() < version ? null : existing);
+	}
+
+	private boolean supersedes(Task fresh, Task existing) {
+		Long minVersion = minVersions.getIfPresent(fresh.getId());
+		return (minVersion == null || fresh.getVersion() >= minVersion)
+				&& (existing == null || fresh.getVersion() > existing.getVersion());
+	}
+
+	private static Task copy(Task task) {
+		Task copy = new Task();
+		copy.setId(task.getId());
+		copy.setTitle(task.getTitle());
+		copy.setDescription(task.getDescription());
+		copy.setDueDate(task.getDueDate());
+		copy.setCompleted(task.getCompleted());
+		copy.setVersion(task.getVersion());
+		return copy;
+	}
+}
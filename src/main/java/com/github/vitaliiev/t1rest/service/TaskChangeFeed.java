@@ -0,0 +1,16 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.TaskChangeEvent;
+
+public interface TaskChangeFeed {
+
+	void publish(TaskChangeEvent event);
+
+	/**
+	 * Registers a subscriber for committed task changes. When {@code afterSequence} is set, buffered changes
+	 * newer than it are replayed first, or a single RESET change is sent if they are no longer available.
+	 *
+	 * @return callback that removes the subscriber
+	 */
+	Runnable subscribe(Long afterSequence, TaskChangeSubscriber subscriber);
+}
@@ -0,0 +1,254 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.TaskChange;
+import com.github.vitaliiev.t1rest.model.TaskChangeEvent;
+import com.github.vitaliiev.t1rest.model.TaskChangeType;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Numbers committed task changes, keeps the most recent ones for resuming clients and fans them out to
+ * subscribers. Publishing only appends to bounded per-subscriber queues; live changes are sent by a fixed pool of
+ * sender threads owned by the feed, so a slow client never blocks the committing thread nor threads used for
+ * other work. A subscriber is dropped when its queue is full or a send has been blocked for longer than the write
+ * timeout, and is expected to reconnect with the last sequence it received. A blocked send keeps its sender
+ * thread until the write fails, at the latest after the server's connection timeout.
+ * <p>
+ * Changes replayed to a resuming subscriber are sent on the subscribing thread, before any live change.
+ * <p>
+ * Sequences are per process and restart from zero, a resume point ahead of the current sequence gets a RESET.
+ */
+@Service
+public class TaskChangeFeedImpl implements TaskChangeFeed {
+
+	private final Executor executor;
+	private final int bufferSize;
+	private final int historySize;
+	private final long writeTimeoutNanos;
+	private final LongSupplier nanoClock;
+
+	private final Object lock = new Object();
+	private final ArrayDeque<TaskChange> history;
+	private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+	private long sequence;
+
+	@Autowired
+	public TaskChangeFeedImpl(@Value("${t1rest.changes.sender-threads:4}") int senderThreads,
+			@Value("${t1rest.changes.buffer-size:256}") int bufferSize,
+			@Value("${t1rest.changes.history-size:1000}") int historySize,
+			@Value("${t1rest.changes.write-timeout:10s}") Duration writeTimeout) {
+		this(senderPool(senderThreads), bufferSize, historySize, writeTimeout, System::nanoTime);
+	}
+
+	TaskChangeFeedImpl(Executor executor, int bufferSize, int historySize, Duration writeTimeout,
+			LongSupplier nanoClock) {
+		this.executor = executor;
+		this.bufferSize = bufferSize;
+		this.historySize = historySize;
+		this.writeTimeoutNanos = writeTimeout.toNanos();
+		this.nanoClock = nanoClock;
+		this.history = new ArrayDeque<>(historySize);
+	}
+
+	@Override
+	@TransactionalEventListener
+	public void publish(TaskChangeEvent event) {
+		synchronized (lock) {
+			TaskChange change = new TaskChange(++sequence, event.getType(), event.getId(), event.getVersion());
+			if (history.size() == historySize) {
+				history.removeFirst();
+			}
+			history.addLast(change);
+			long now = nanoClock.getAsLong();
+			for (Subscription subscription : subscriptions) {
+				if (!subscription.offer(change, now)) {
+					subscriptions.remove(subscription);
+				}
+			}
+		}
+	}
+
+	@Override
+	public Runnable subscribe(Long afterSequence, TaskChangeSubscriber subscriber) {
+		List<TaskChange> replay = new ArrayList<>();
+		Subscription subscription = new Subscription(subscriber);
+		synchronized (lock) {
+			if (afterSequence != null && afterSequence != sequence) {
+				if (afterSequence > sequence || afterSequence < sequence - history.size()) {
+					replay.add(new TaskChange(sequence, TaskChangeType.RESET, null, null));
+				} else {
+					for (TaskChange change : history) {
+						if (change.getSequence() > afterSequence) {
+							replay.add(change);
+						}
+					}
+				}
+			}
+			subscriptions.add(subscription);
+		}
+		subscription.replay(replay);
+		return () -> remove(subscription);
+	}
+
+	@PreDestroy
+	public void close() {
+		if (executor instanceof ExecutorService executorService) {
+			executorService.shutdownNow();
+		}
+	}
+
+	private void remove(Subscription subscription) {
+		synchronized (lock) {
+			subscriptions.remove(subscription);
+		}
+		subscription.close();
+	}
+
+	private static ExecutorService senderPool(int threads) {
+		AtomicInteger count = new AtomicInteger();
+		return Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "task-change-sender-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	private class Subscription {
+		private final TaskChangeSubscriber subscriber;
+		private final ArrayDeque<TaskChange> pending = new ArrayDeque<>();
+		// set until the replay is sent, so that live changes queue up behind it
+		private boolean draining = true;
+		private boolean overflowed;
+		private boolean closed;
+		private boolean sending;
+		private long sendStartedAt;
+
+		Subscription(TaskChangeSubscriber subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		/**
+		 * @return false if the subscriber is dropped
+		 */
+		boolean offer(TaskChange change, long now) {
+			synchronized (this) {
+				if (closed || overflowed) {
+					return false;
+				}
+				if (pending.size() == bufferSize || (sending && now - sendStartedAt > writeTimeoutNanos)) {
+					// the sender completes the subscriber once the blocked send returns
+					overflowed = true;
+					pending.clear();
+					return false;
+				}
+				pending.addLast(change);
+				if (draining) {
+					return true;
+				}
+				draining = true;
+			}
+			schedule();
+			return true;
+		}
+
+		void replay(List<TaskChange> changes) {
+			for (TaskChange change : changes) {
+				if (!send(change)) {
+					drop();
+					return;
+				}
+			}
+			synchronized (this) {
+				if (closed) {
+					draining = false;
+					return;
+				}
+				if (pending.isEmpty() && !overflowed) {
+					draining = false;
+					return;
+				}
+			}
+			schedule();
+		}
+
+		void close() {
+			synchronized (this) {
+				closed = true;
+				pending.clear();
+			}
+		}
+
+		private void schedule() {
+			try {
+				executor.execute(this::drain);
+			} catch (RejectedExecutionException e) {
+				// shutting down
+				close();
+			}
+		}
+
+		private void drain() {
+			while (true) {
+				TaskChange change;
+				synchronized (this) {
+					if (closed) {
+						draining = false;
+						return;
+					}
+					if (overflowed) {
+						break;
+					}
+					change = pending.pollFirst();
+					if (change == null) {
+						draining = false;
+						return;
+					}
+				}
+				if (!send(change)) {
+					break;
+				}
+			}
+			drop();
+		}
+
+		private boolean send(TaskChange change) {
+			synchronized (this) {
+				sending = true;
+				sendStartedAt = nanoClock.getAsLong();
+			}
+			try {
+				subscriber.send(change);
+				return true;
+			} catch (Exception e) {
+				return false;
+			} finally {
+				synchronized (this) {
+					sending = false;
+				}
+			}
+		}
+
+		private void drop() {
+			remove(this);
+			synchronized (this) {
+				draining = false;
+			}
+			subscriber.complete();
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.TaskChange;
+
+import java.io.IOException;
+
+public interface TaskChangeSubscriber {
+
+	void send(TaskChange change) throws IOException;
+
+	/**
+	 * Called once when the feed drops the subscriber, either because it fell too far behind or because
+	 * sending failed.
+	 */
+	void complete();
+}
@@ -0,0 +1,15 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.ImportResult;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.validation.annotation.Validated;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Validated
+public interface TaskImportService {
+
+	@Validated
+	ImportResult importTasks(@NotNull InputStream ndjson) throws IOException;
+}
@@ -0,0 +1,164 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.model.ImportLineError;
+import com.github.vitaliiev.t1rest.model.ImportResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads NDJSON one line at a time and hands valid tasks to {@link TaskService#createTasks} in chunks, each
+ * chunk committed in its own transaction. The request body is only read as fast as chunks are committed,
+ * and lines longer than {@code t1rest.import.max-line-length} characters are skipped and rejected, so memory
+ * use is bounded by the chunk size and the line limit regardless of upload size.
+ */
+@Service
+public class TaskImportServiceImpl implements TaskImportService {
+
+	private static final int MAX_REPORTED_ERRORS = 1000;
+
+	private final TaskService taskService;
+	private final ObjectReader reader;
+	private final Validator validator;
+	private final int chunkSize;
+	private final int maxLineLength;
+
+	public TaskImportServiceImpl(TaskService taskService, ObjectMapper objectMapper, Validator validator,
+			@Value("${t1rest.import.chunk-size:1000}") int chunkSize,
+			@Value("${t1rest.import.max-line-length:1048576}") int maxLineLength) {
+		this.taskService = taskService;
+		this.reader = objectMapper.readerFor(CreateTaskDto.class);
+		this.validator = validator;
+		this.chunkSize = chunkSize;
+		this.maxLineLength = maxLineLength;
+	}
+
+	@Override
+	public ImportResult importTasks(InputStream ndjson) throws IOException {
+		long accepted = 0;
+		long rejected = 0;
+		List<ImportLineError> errors = new ArrayList<>();
+		List<CreateTaskDto> chunk = new ArrayList<>(chunkSize);
+		try (Reader in = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+			BoundedLineReader lines = new BoundedLineReader(in, maxLineLength);
+			long lineNumber = 0;
+			while (lines.next()) {
+				lineNumber++;
+				String error;
+				if (lines.isTooLong()) {
+					error = "Line exceeds " + maxLineLength + " characters";
+				} else {
+					String line = lines.line();
+					if (line.isBlank()) {
+						continue;
+					}
+					try {
+						CreateTaskDto dto = reader.readValue(line);
+						error = validate(dto);
+						if (error == null) {
+							chunk.add(dto);
+						}
+					} catch (JsonProcessingException e) {
+						error = "Malformed JSON: " + e.getOriginalMessage();
+					}
+				}
+				if (error != null) {
+					rejected++;
+					if (errors.size() < MAX_REPORTED_ERRORS) {
+						errors.add(new ImportLineError(lineNumber, error));
+					}
+				}
+				if (chunk.size() == chunkSize) {
+					accepted += commit(chunk);
+				}
+			}
+		}
+		accepted += commit(chunk);
+		return ImportResult.builder()
+				.accepted(accepted)
+				.rejected(rejected)
+				.errors(errors)
+				.build();
+	}
+
+	private String validate(CreateTaskDto dto) {
+		if (dto == null) {
+			return "Task must not be null";
+		}
+		Set<ConstraintViolation<CreateTaskDto>> violations = validator.validate(dto);
+		if (violations.isEmpty()) {
+			return null;
+		}
+		return violations.stream()
+				.map(v -> v.getPropertyPath() + " " + v.getMessage())
+				.sorted()
+				.collect(Collectors.joining(", "));
+	}
+
+	private int commit(List<CreateTaskDto> chunk) {
+		if (chunk.isEmpty()) {
+			return 0;
+		}
+		int committed = taskService.createTasks(chunk).size();
+		chunk.clear();
+		return committed;
+	}
+
+	/**
+	 * Splits a character stream into lines of at most {@code maxLength} characters. The rest of a longer line
+	 * is read and dropped, so a body without line breaks is not buffered whole.
+	 */
+	private static final class BoundedLineReader {
+		private final Reader in;
+		private final int maxLength;
+		private final StringBuilder line = new StringBuilder();
+		private boolean tooLong;
+
+		private BoundedLineReader(Reader in, int maxLength) {
+			this.in = in;
+			this.maxLength = maxLength;
+		}
+
+		boolean next() throws IOException {
+			line.setLength(0);
+			tooLong = false;
+			int c = in.read();
+			if (c == -1) {
+				return false;
+			}
+			while (c != -1 && c != '\n') {
+				if (line.length() < maxLength) {
+					line.append((char) c);
+				} else {
+					tooLong = true;
+				}
+				c = in.read();
+			}
+			return true;
+		}
+
+		boolean isTooLong() {
+			return tooLong;
+		}
+
+		String line() {
+			return line.toString();
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.data.domain.Page;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+public interface TaskSearchService {
+
+	/**
+	 * Finds tasks whose title or description contain every word of the query, most relevant first.
+	 */
+	Page<TaskSummary> search(@NotBlank String query, Integer page);
+
+	/**
+	 * Schedules a rebuild of the whole index from the repository, searches keep using the current index
+	 * until it completes.
+	 */
+	void rebuild();
+}
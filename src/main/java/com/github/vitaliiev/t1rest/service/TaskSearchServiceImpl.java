@@ -0,0 +1,291 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.TaskChangeEvent;
+import com.github.vitaliiev.t1rest.model.TaskChangeType;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.TaskSummaryDto;
+import com.github.vitaliiev.t1rest.model.TaskView;
+import com.github.vitaliiev.t1rest.repository.TaskStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lucene index over task title and description, ranked with BM25 and boosting title matches. Committed
+ * changes only mark task ids as dirty; a single indexer thread reloads them from the repository in batches,
+ * so writers never wait for indexing and repeated changes to the same task are coalesced. Search results
+ * are built from stored fields and do not touch the database.
+ * <p>
+ * The index lives in memory unless {@code t1rest.search.index-dir} is set, and is rebuilt on startup when empty.
+ */
+@Slf4j
+@Service
+public class TaskSearchServiceImpl implements TaskSearchService {
+
+	private static final int PAGE_SIZE = 100;
+	private static final int INDEX_BATCH_SIZE = 500;
+	private static final int MAX_QUERY_TERMS = 32;
+	private static final float TITLE_BOOST = 2f;
+
+	private static final String ID = "id";
+	private static final String TITLE = "title";
+	private static final String DESCRIPTION = "description";
+	private static final String DUE_DATE = "dueDate";
+	private static final String COMPLETED = "completed";
+
+	private final TaskStore taskStore;
+	private final TaskService taskService;
+	private final Analyzer analyzer = new StandardAnalyzer();
+	private final Directory directory;
+	private final IndexWriter writer;
+	private final SearcherManager searcherManager;
+
+	private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "task-search-indexer");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public TaskSearchServiceImpl(TaskStore taskStore, TaskService taskService,
+			@Value("${t1rest.search.index-dir:}") String indexDir) throws IOException {
+		this.taskStore = taskStore;
+		this.taskService = taskService;
+		this.directory = indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Path.of(indexDir));
+		this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+		this.searcherManager = new SearcherManager(writer, null);
+	}
+
+	@Override
+	public Page<TaskSummary> search(String query, Integer page) {
+		PageRequest pageRequest = PageRequest.of(page == null ? 0 : page, PAGE_SIZE);
+		Query luceneQuery = toQuery(query);
+		if (luceneQuery == null) {
+			return Page.empty(pageRequest);
+		}
+		try {
+			IndexSearcher searcher = searcherManager.acquire();
+			try {
+				long offset = pageRequest.getOffset();
+				// Lucene caps the number of hits at the number of documents, far pages only need to not overflow
+				TopDocs top = searcher.search(luceneQuery, (int) Math.min(offset + PAGE_SIZE, Integer.MAX_VALUE));
+				long total = top.totalHits.relation == TotalHits.Relation.EQUAL_TO
+						? top.totalHits.value
+						: searcher.count(luceneQuery);
+				StoredFields storedFields = searcher.storedFields();
+				List<TaskSummary> content = new ArrayList<>(PAGE_SIZE);
+				for (long i = offset; i < top.scoreDocs.length; i++) {
+					content.add(toSummary(storedFields.document(top.scoreDocs[(int) i].doc)));
+				}
+				return new PageImpl<>(content, pageRequest, total);
+			} finally {
+				searcherManager.release(searcher);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void rebuild() {
+		indexer.execute(this::rebuildIndex);
+	}
+
+	@TransactionalEventListener
+	public void onTaskChange(TaskChangeEvent event) {
+		if (event.getType() == TaskChangeType.PURGED) {
+			// bulk deletes do not report ids
+			rebuild();
+			return;
+		}
+		if (event.getId() == null) {
+			return;
+		}
+		dirty.add(event.getId());
+		if (scheduled.compareAndSet(false, true)) {
+			indexer.execute(this::indexDirty);
+		}
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void rebuildIfEmpty() {
+		if (writer.getDocStats().numDocs == 0) {
+			rebuild();
+		}
+	}
+
+	@PreDestroy
+	public void close() throws IOException, InterruptedException {
+		indexer.shutdown();
+		indexer.awaitTermination(10, TimeUnit.SECONDS);
+		searcherManager.close();
+		writer.close();
+		directory.close();
+	}
+
+	private void indexDirty() {
+		scheduled.set(false);
+		try {
+			List<UUID> batch = new ArrayList<>(INDEX_BATCH_SIZE);
+			Iterator<UUID> ids = dirty.iterator();
+			while (ids.hasNext()) {
+				batch.add(ids.next());
+				ids.remove();
+				if (batch.size() == INDEX_BATCH_SIZE) {
+					index(batch);
+					batch.clear();
+				}
+			}
+			if (!batch.isEmpty()) {
+				index(batch);
+			}
+			commit();
+		} catch (Exception e) {
+			log.error("Failed to update the task search index", e);
+		}
+	}
+
+	// tasks that are no longer found were deleted
+	private void index(List<UUID> ids) throws IOException {
+		Map<UUID, TaskView> tasks = taskStore.findViewsByIdIn(ids).stream()
+				.collect(Collectors.toMap(TaskView::getId, Function.identity()));
+		for (UUID id : ids) {
+			TaskView task = tasks.get(id);
+			Term term = new Term(ID, id.toString());
+			if (task == null) {
+				writer.deleteDocuments(term);
+			} else {
+				writer.updateDocument(term, toDocument(task));
+			}
+		}
+	}
+
+	private void rebuildIndex() {
+		try {
+			writer.deleteAll();
+			taskService.exportTasks(task -> {
+				try {
+					writer.addDocument(toDocument(task));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+			commit();
+		} catch (Exception e) {
+			// the index may be incomplete until the next successful rebuild
+			log.error("Failed to rebuild the task search index", e);
+		}
+	}
+
+	private void commit() throws IOException {
+		writer.commit();
+		searcherManager.maybeRefresh();
+	}
+
+	private Query toQuery(String query) {
+		Set<String> terms = new LinkedHashSet<>();
+		try (TokenStream tokens = analyzer.tokenStream(DESCRIPTION, query)) {
+			CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+			tokens.reset();
+			while (tokens.incrementToken() && terms.size() < MAX_QUERY_TERMS) {
+				terms.add(term.toString());
+			}
+			tokens.end();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (terms.isEmpty()) {
+			return null;
+		}
+		BooleanQuery.Builder all = new BooleanQuery.Builder();
+		for (String term : terms) {
+			Query anyField = new BooleanQuery.Builder()
+					.add(new BoostQuery(new TermQuery(new Term(TITLE, term)), TITLE_BOOST), BooleanClause.Occur.SHOULD)
+					.add(new TermQuery(new Term(DESCRIPTION, term)), BooleanClause.Occur.SHOULD)
+					.build();
+			all.add(anyField, BooleanClause.Occur.MUST);
+		}
+		return all.build();
+	}
+
+	private static Document toDocument(TaskView task) {
+		Document document = new Document();
+		document.add(new StringField(ID, task.getId().toString(), Field.Store.YES));
+		document.add(new TextField(TITLE, nullToEmpty(task.getTitle()), Field.Store.YES));
+		document.add(new TextField(DESCRIPTION, nullToEmpty(task.getDescription()), Field.Store.NO));
+		if (task.getDueDate() != null) {
+			document.add(new StoredField(DUE_DATE, task.getDueDate().toEpochDay()));
+		}
+		if (task.getCompleted() != null) {
+			document.add(new StoredField(COMPLETED, task.getCompleted() ? 1 : 0));
+		}
+		return document;
+	}
+
+	private static TaskSummary toSummary(Document document) {
+		Number dueDate = document.getField(DUE_DATE) == null ? null : document.getField(DUE_DATE).numericValue();
+		Number completed = document.getField(COMPLETED) == null ? null : document.getField(COMPLETED).numericValue();
+		return new TaskSummaryDto(
+				UUID.fromString(document.get(ID)),
+				document.get(TITLE),
+				dueDate == null ? null : LocalDate.ofEpochDay(dueDate.longValue()),
+				completed == null ? null : completed.intValue() == 1);
+	}
+
+	private static String nullToEmpty(String value) {
+		return value == null ? "" : value;
+	}
+}
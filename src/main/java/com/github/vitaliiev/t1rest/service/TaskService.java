@@ -1,30 +1,99 @@
 package com.github.vitaliiev.t1rest.service;
 
+import com.github.vitaliiev.t1rest.model.BatchItemResult;
+import com.github.vitaliiev.t1rest.model.BatchUpdateTaskDto;
 import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.model.CursorPage;
+import com.github.vitaliiev.t1rest.model.InvalidCursorException;
+import com.github.vitaliiev.t1rest.model.InvalidPageSizeException;
 import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskFilter;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.TaskVersionMismatchException;
+import com.github.vitaliiev.t1rest.model.TaskView;
 import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
 import com.github.vitaliiev.t1rest.model.TaskNotFountException;
+import com.github.vitaliiev.t1rest.model.TaskQueueFullException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.validation.annotation.Validated;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Validated
 public interface TaskService {
 
-	Page<Task> getTasks(Integer page);
+	Page<TaskSummary> getTasks(Integer page);
+
+	@Validated
+	Page<TaskSummary> getTasks(Integer page, @NotNull TaskFilter filter);
+
+	/**
+	 * @param size page size, the configured default when null
+	 * @throws InvalidPageSizeException if {@code size} exceeds the configured maximum
+	 */
+	@Validated
+	Page<TaskSummary> getTasks(Integer page, @Positive Integer size, @NotNull TaskFilter filter)
+			throws InvalidPageSizeException;
+
+	/**
+	 * Like {@link #getTasks(Integer, Integer, TaskFilter)} but only tells whether a next page exists,
+	 * which takes a single query reading one extra row instead of an additional count.
+	 */
+	@Validated
+	Slice<TaskSummary> getTaskSlice(Integer page, @Positive Integer size, @NotNull TaskFilter filter)
+			throws InvalidPageSizeException;
+
+	CursorPage<TaskSummary> scrollTasks(String cursor) throws InvalidCursorException;
 
 	@Validated
 	Task createTask(@Valid @NotNull CreateTaskDto createTaskDto);
 
+	/**
+	 * Assigns an id and queues the task for a batched insert when write-behind is enabled
+	 * ({@code t1rest.write-behind.enabled}). The task becomes readable once its batch has been written.
+	 *
+	 * @return the assigned id, or empty if write-behind is disabled and the task should be created synchronously
+	 * @throws TaskQueueFullException if the write-behind queue is full
+	 */
+	@Validated
+	Optional<UUID> enqueueTask(@Valid @NotNull CreateTaskDto createTaskDto) throws TaskQueueFullException;
+
 	@Validated
 	Task getTask(@NotNull UUID id) throws TaskNotFountException;
 
 	@Validated
 	Task updateTask(@NotNull UUID id, @Valid @NotNull UpdateTaskDto updateTaskDto) throws TaskNotFountException;
 
+	@Validated
+	Task updateTask(@NotNull UUID id, @Valid @NotNull UpdateTaskDto updateTaskDto, Long expectedVersion)
+			throws TaskNotFountException, TaskVersionMismatchException;
+
 	@Validated
 	void deleteTask(@NotNull UUID id) throws TaskNotFountException;
+
+	@Validated
+	void deleteTask(@NotNull UUID id, Long expectedVersion) throws TaskNotFountException, TaskVersionMismatchException;
+
+	@Validated
+	int deleteCompletedTasks(@NotNull LocalDate dueBefore);
+
+	@Validated
+	void exportTasks(@NotNull Consumer<TaskView> consumer);
+
+	@Validated
+	List<BatchItemResult> createTasks(@NotNull List<@Valid @NotNull CreateTaskDto> createTaskDtos);
+
+	@Validated
+	List<BatchItemResult> updateTasks(@NotNull List<@Valid @NotNull BatchUpdateTaskDto> updateTaskDtos);
+
+	@Validated
+	List<BatchItemResult> deleteTasks(@NotNull List<@NotNull UUID> ids);
 }
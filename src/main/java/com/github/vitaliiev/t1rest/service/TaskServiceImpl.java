@@ -1,83 +1,273 @@
 package com.github.vitaliiev.t1rest.service;
 
+import com.github.vitaliiev.t1rest.config.CacheConfig;
+import com.github.vitaliiev.t1rest.model.BatchItemResult;
+import com.github.vitaliiev.t1rest.model.BatchItemStatus;
+import com.github.vitaliiev.t1rest.model.BatchUpdateTaskDto;
 import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.model.CursorPage;
+import com.github.vitaliiev.t1rest.model.InvalidCursorException;
+import com.github.vitaliiev.t1rest.model.InvalidPageSizeException;
 import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskChangeEvent;
+import com.github.vitaliiev.t1rest.model.TaskCursor;
+import com.github.vitaliiev.t1rest.model.TaskFilter;
 import com.github.vitaliiev.t1rest.model.TaskNotFountException;
+import com.github.vitaliiev.t1rest.model.TaskQueueFullException;
+import com.github.vitaliiev.t1rest.model.TaskRevision;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.TaskVersionMismatchException;
+import com.github.vitaliiev.t1rest.model.TaskView;
 import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
-import com.github.vitaliiev.t1rest.repository.TaskRepository;
+import com.github.vitaliiev.t1rest.repository.TaskStore;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+@Timed(value = "tasks.service", histogram = true, percentiles = {0.5, 0.95, 0.99})
 @RequiredArgsConstructor
 @Service
 public class TaskServiceImpl implements TaskService {
 
-	private final TaskRepository taskRepository;
+	private final TaskStore taskStore;
+	private final ApplicationEventPublisher eventPublisher;
+	private final CacheManager cacheManager;
+	private final TaskCache taskCache;
+	private final ObjectProvider<TaskWriteBehindQueue> writeBehindQueue;
 
-	private static final int PAGE_SIZE = 100;
+	@Value("${t1rest.paging.default-size:100}")
+	private int defaultPageSize;
+
+	@Value("${t1rest.paging.max-size:500}")
+	private int maxPageSize;
+
+	// multiple of hibernate.jdbc.batch_size, bounds the persistence context of JpaTaskStore during batch operations
+	private static final int BATCH_CHUNK_SIZE = 500;
+
+	@Override
+	@Transactional(readOnly = true)
+	public Page<TaskSummary> getTasks(Integer page) {
+		TaskFilter filter = TaskFilter.builder().build();
+		PageRequest pageRequest = PageRequest.of(page == null ? 0 : page, defaultPageSize);
+		List<TaskSummary> content = taskStore.findSummaries(filter, pageRequest, pageRequest.getPageSize());
+		return PageableExecutionUtils.getPage(content, pageRequest, () -> taskStore.count(filter));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Page<TaskSummary> getTasks(Integer page, TaskFilter filter) {
+		return getTasks(page, null, filter);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Page<TaskSummary> getTasks(Integer page, Integer size, TaskFilter filter) throws InvalidPageSizeException {
+		PageRequest pageRequest = pageRequest(page, size, filter);
+		List<TaskSummary> content = taskStore.findSummaries(filter, pageRequest, pageRequest.getPageSize());
+		// the total is only queried when it cannot be derived from a partial page
+		return PageableExecutionUtils.getPage(content, pageRequest, () -> countTasks(filter));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Slice<TaskSummary> getTaskSlice(Integer page, Integer size, TaskFilter filter) throws InvalidPageSizeException {
+		PageRequest pageRequest = pageRequest(page, size, filter);
+		List<TaskSummary> rows = taskStore.findSummaries(filter, pageRequest, pageRequest.getPageSize() + 1);
+		boolean hasNext = rows.size() > pageRequest.getPageSize();
+		return new SliceImpl<>(hasNext ? rows.subList(0, pageRequest.getPageSize()) : rows, pageRequest, hasNext);
+	}
 
 	@Override
 	@Transactional(readOnly = true)
-	public Page<Task> getTasks(Integer page) {
-		PageRequest pageRequest = PageRequest.of(page == null ? 0 : page, PAGE_SIZE);
-		return taskRepository.findAll(pageRequest);
+	public CursorPage<TaskSummary> scrollTasks(String cursor) throws InvalidCursorException {
+		TaskCursor after = cursor == null || cursor.isEmpty() ? null : TaskCursor.decode(cursor);
+		List<TaskSummary> rows = taskStore.findSummariesAfter(after, defaultPageSize + 1);
+		boolean hasNext = rows.size() > defaultPageSize;
+		List<TaskSummary> content = hasNext ? rows.subList(0, defaultPageSize) : rows;
+		String nextCursor = hasNext ? TaskCursor.of(content.get(content.size() - 1)).encode() : null;
+		return new CursorPage<>(content, nextCursor);
 	}
 
 	@Override
 	@Transactional
 	public Task createTask(CreateTaskDto createTaskDto) {
-		Task task = new Task();
-		task.setTitle(createTaskDto.getTitle());
-		task.setDescription(createTaskDto.getDescription());
-		task.setDueDate(createTaskDto.getDueDate() == null ? LocalDate.now() : createTaskDto.getDueDate());
-		task.setCompleted(Boolean.TRUE.equals(createTaskDto.getCompleted()));
-		return taskRepository.save(task);
+		Task task = taskStore.save(createTaskDto.toTask());
+		eventPublisher.publishEvent(TaskChangeEvent.created(task));
+		return task;
+	}
+
+	@Override
+	public Optional<UUID> enqueueTask(CreateTaskDto createTaskDto) throws TaskQueueFullException {
+		TaskWriteBehindQueue queue = writeBehindQueue.getIfAvailable();
+		if (queue == null) {
+			return Optional.empty();
+		}
+		Task task = createTaskDto.toTask();
+		task.setId(UUID.randomUUID());
+		task.setVersion(0L);
+		queue.enqueue(task);
+		return Optional.of(task.getId());
 	}
 
 	@Override
-	@Transactional(readOnly = true)
 	public Task getTask(UUID id) throws TaskNotFountException {
-		return taskRepository.findById(id)
+		return taskCache.get(id, () -> taskStore.findById(id))
 				.orElseThrow(() -> new TaskNotFountException(id));
 	}
 
 	@Override
 	@Transactional
 	public Task updateTask(UUID id, UpdateTaskDto updateTaskDto) throws TaskNotFountException {
-		return taskRepository.findById(id)
-				.map(t -> updateFields(t, updateTaskDto))
-				.orElseThrow(() -> new TaskNotFountException(id));
+		return update(id, updateTaskDto, null);
+	}
+
+	@Override
+	@Transactional
+	public Task updateTask(UUID id, UpdateTaskDto updateTaskDto, Long expectedVersion)
+			throws TaskNotFountException, TaskVersionMismatchException {
+		return update(id, updateTaskDto, expectedVersion);
 	}
 
 	@Override
 	@Transactional
 	public void deleteTask(UUID id) throws TaskNotFountException {
-		if (taskRepository.existsById(id)) {
-			taskRepository.deleteById(id);
-		} else {
-			throw new TaskNotFountException(id);
+		TaskSummary deleted = taskStore.deleteReturning(id, null)
+				.orElseThrow(() -> new TaskNotFountException(id));
+		eventPublisher.publishEvent(TaskChangeEvent.deleted(deleted));
+	}
+
+	@Override
+	@Transactional
+	public void deleteTask(UUID id, Long expectedVersion) throws TaskNotFountException, TaskVersionMismatchException {
+		if (expectedVersion == null) {
+			deleteTask(id);
+			return;
 		}
+		TaskSummary deleted = taskStore.deleteReturning(id, expectedVersion)
+				.orElseThrow(() -> taskStore.existsById(id)
+						? new TaskVersionMismatchException(id)
+						: new TaskNotFountException(id));
+		eventPublisher.publishEvent(TaskChangeEvent.deleted(deleted));
 	}
 
-	private Task updateFields(Task task, UpdateTaskDto updateTaskDto) {
-		if (updateTaskDto.getTitle() != null) {
-			task.setTitle(updateTaskDto.getTitle());
+	@Override
+	@Transactional
+	public int deleteCompletedTasks(LocalDate dueBefore) {
+		int deleted = taskStore.deleteCompletedDueBefore(dueBefore);
+		if (deleted > 0) {
+			eventPublisher.publishEvent(TaskChangeEvent.purged());
+		}
+		return deleted;
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void exportTasks(Consumer<TaskView> consumer) {
+		taskStore.forEach(consumer);
+	}
+
+	@Override
+	@Transactional
+	public List<BatchItemResult> createTasks(List<CreateTaskDto> createTaskDtos) {
+		List<BatchItemResult> results = new ArrayList<>(createTaskDtos.size());
+		for (int from = 0; from < createTaskDtos.size(); from += BATCH_CHUNK_SIZE) {
+			List<Task> chunk = createTaskDtos.subList(from, Math.min(from + BATCH_CHUNK_SIZE, createTaskDtos.size()))
+					.stream()
+					.map(CreateTaskDto::toTask)
+					.toList();
+			List<Task> saved = taskStore.saveAll(chunk);
+			for (int i = 0; i < saved.size(); i++) {
+				Task task = saved.get(i);
+				eventPublisher.publishEvent(TaskChangeEvent.created(task));
+				results.add(BatchItemResult.of(from + i, task.getId(), BatchItemStatus.CREATED));
+			}
 		}
-		if (updateTaskDto.getDescription() != null) {
-			task.setDescription(updateTaskDto.getDescription());
+		return results;
+	}
+
+	@Override
+	@Transactional
+	public List<BatchItemResult> updateTasks(List<BatchUpdateTaskDto> updateTaskDtos) {
+		List<BatchItemResult> results = new ArrayList<>(updateTaskDtos.size());
+		for (int from = 0; from < updateTaskDtos.size(); from += BATCH_CHUNK_SIZE) {
+			List<BatchUpdateTaskDto> chunk = updateTaskDtos.subList(from, Math.min(from + BATCH_CHUNK_SIZE, updateTaskDtos.size()));
+			Set<UUID> updated = new HashSet<>();
+			for (TaskRevision revision : taskStore.updateAll(chunk)) {
+				updated.add(revision.getCurrent().getId());
+				eventPublisher.publishEvent(TaskChangeEvent.updated(revision.getPrevious(), revision.getCurrent()));
+			}
+			for (int i = 0; i < chunk.size(); i++) {
+				UUID id = chunk.get(i).getId();
+				BatchItemStatus status = updated.contains(id) ? BatchItemStatus.UPDATED : BatchItemStatus.NOT_FOUND;
+				results.add(BatchItemResult.of(from + i, id, status));
+			}
 		}
-		if (updateTaskDto.getDueDate() != null) {
-			task.setDueDate(updateTaskDto.getDueDate());
+		return results;
+	}
+
+	@Override
+	@Transactional
+	public List<BatchItemResult> deleteTasks(List<UUID> ids) {
+		List<BatchItemResult> results = new ArrayList<>(ids.size());
+		for (int from = 0; from < ids.size(); from += BATCH_CHUNK_SIZE) {
+			List<UUID> chunk = ids.subList(from, Math.min(from + BATCH_CHUNK_SIZE, ids.size()));
+			Set<UUID> existing = new HashSet<>();
+			for (TaskSummary deleted : taskStore.deleteAllReturning(chunk)) {
+				existing.add(deleted.getId());
+				eventPublisher.publishEvent(TaskChangeEvent.deleted(deleted));
+			}
+			for (int i = 0; i < chunk.size(); i++) {
+				UUID id = chunk.get(i);
+				BatchItemStatus status = existing.contains(id) ? BatchItemStatus.DELETED : BatchItemStatus.NOT_FOUND;
+				results.add(BatchItemResult.of(from + i, id, status));
+			}
 		}
-		if (updateTaskDto.getCompleted() != null) {
-			task.setCompleted(updateTaskDto.getCompleted());
+		return results;
+	}
+
+	private Task update(UUID id, UpdateTaskDto updateTaskDto, Long expectedVersion) {
+		TaskRevision revision = taskStore.updateFields(id, updateTaskDto, expectedVersion)
+				.orElseThrow(() -> taskStore.existsById(id)
+						? new TaskVersionMismatchException(id)
+						: new TaskNotFountException(id));
+		eventPublisher.publishEvent(TaskChangeEvent.updated(revision.getPrevious(), revision.getCurrent()));
+		return revision.getCurrent();
+	}
+
+	private PageRequest pageRequest(Integer page, Integer size, TaskFilter filter) {
+		if (size != null && size > maxPageSize) {
+			throw new InvalidPageSizeException(size, maxPageSize);
 		}
-		return task;
+		Sort sort = filter.getSort() == null ? Sort.unsorted() : filter.getSort().getSort();
+		return PageRequest.of(page == null ? 0 : page, size == null ? defaultPageSize : size, sort);
+	}
+
+	// totals may be a few seconds stale, see CacheConfig; the sort does not affect them
+	private long countTasks(TaskFilter filter) {
+		Cache counts = cacheManager.getCache(CacheConfig.TASK_COUNTS_CACHE);
+		List<Object> key = Arrays.asList(filter.getCompleted(), filter.getDueFrom(), filter.getDueTo(), filter.getTitlePrefix());
+		return counts.get(key, () -> taskStore.count(filter));
 	}
 }
@@ -0,0 +1,13 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.TaskStats;
+
+public interface TaskStatsService {
+
+	TaskStats getStats();
+
+	/**
+	 * Replaces the counters with a fresh aggregate from the repository.
+	 */
+	void reconcile();
+}
@@ -0,0 +1,159 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.TaskChangeEvent;
+import com.github.vitaliiev.t1rest.model.TaskChangeType;
+import com.github.vitaliiev.t1rest.model.TaskDueDateCount;
+import com.github.vitaliiev.t1rest.model.TaskStats;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.repository.TaskStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Task counts per due date and completion state, adjusted from committed change events and periodically
+ * replaced by a GROUP BY aggregate. Computing the stats sums one entry per distinct due date, independent of
+ * the number of tasks, and the result is reused until the counters or the current date change.
+ * <p>
+ * Bulk purges do not report the deleted rows and trigger a reconciliation instead. A change committed while
+ * a reconciliation is running may be counted twice or missed until the next one.
+ */
+@RequiredArgsConstructor
+@Service
+public class TaskStatsServiceImpl implements TaskStatsService {
+
+	private static final int NEXT_DAYS = 7;
+
+	private final TaskStore taskStore;
+
+	private volatile Counters counters = new Counters(null);
+	private volatile Snapshot snapshot;
+	private final AtomicLong modifications = new AtomicLong();
+
+	@Override
+	public TaskStats getStats() {
+		LocalDate today = LocalDate.now();
+		long modification = modifications.get();
+		Snapshot cached = snapshot;
+		if (cached != null && cached.modification == modification && cached.day.equals(today)) {
+			return cached.stats;
+		}
+		TaskStats stats = compute(counters, today);
+		snapshot = new Snapshot(modification, today, stats);
+		return stats;
+	}
+
+	@Override
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${t1rest.stats.reconcile-interval:PT5M}",
+			initialDelayString = "${t1rest.stats.reconcile-interval:PT5M}")
+	public void reconcile() {
+		Counters fresh = new Counters(Instant.now());
+		for (TaskDueDateCount row : taskStore.countByDueDateAndCompleted()) {
+			fresh.counts(row.getDueDate()).adder(row.getCompleted()).add(row.getCount());
+		}
+		counters = fresh;
+		modifications.incrementAndGet();
+	}
+
+	@TransactionalEventListener
+	public void onTaskChange(TaskChangeEvent event) {
+		if (event.getType() == TaskChangeType.PURGED) {
+			reconcile();
+			return;
+		}
+		Counters current = counters;
+		if (event.getPrevious() != null) {
+			add(current, event.getPrevious(), -1);
+		}
+		if (event.getCurrent() != null) {
+			add(current, event.getCurrent(), 1);
+		}
+		modifications.incrementAndGet();
+	}
+
+	private static void add(Counters counters, TaskSummary task, long delta) {
+		counters.counts(task.getDueDate()).adder(task.getCompleted()).add(delta);
+	}
+
+	private static TaskStats compute(Counters counters, LocalDate today) {
+		long completed = counters.withoutDueDate.completed.sum();
+		long withoutDueDate = counters.withoutDueDate.open.sum();
+		long overdue = 0;
+		long dueToday = 0;
+		long dueNextDays = 0;
+		long dueLater = 0;
+		LocalDate nextDaysEnd = today.plusDays(NEXT_DAYS);
+		for (Map.Entry<LocalDate, Counts> entry : counters.byDueDate.entrySet()) {
+			completed += entry.getValue().completed.sum();
+			long open = entry.getValue().open.sum();
+			LocalDate dueDate = entry.getKey();
+			if (dueDate.isBefore(today)) {
+				overdue += open;
+			} else if (dueDate.isEqual(today)) {
+				dueToday += open;
+			} else if (!dueDate.isAfter(nextDaysEnd)) {
+				dueNextDays += open;
+			} else {
+				dueLater += open;
+			}
+		}
+		long open = withoutDueDate + overdue + dueToday + dueNextDays + dueLater;
+		return TaskStats.builder()
+				.total(open + completed)
+				.completed(completed)
+				.open(open)
+				.overdue(overdue)
+				.dueToday(dueToday)
+				.dueNextSevenDays(dueNextDays)
+				.dueLater(dueLater)
+				.withoutDueDate(withoutDueDate)
+				.reconciledAt(counters.reconciledAt)
+				.build();
+	}
+
+	private static class Counters {
+		private final Map<LocalDate, Counts> byDueDate = new ConcurrentHashMap<>();
+		private final Counts withoutDueDate = new Counts();
+		private final Instant reconciledAt;
+
+		Counters(Instant reconciledAt) {
+			this.reconciledAt = reconciledAt;
+		}
+
+		Counts counts(LocalDate dueDate) {
+			return dueDate == null ? withoutDueDate : byDueDate.computeIfAbsent(dueDate, d -> new Counts());
+		}
+	}
+
+	private static class Counts {
+		private final LongAdder open = new LongAdder();
+		private final LongAdder completed = new LongAdder();
+
+		LongAdder adder(Boolean completed) {
+			return Boolean.TRUE.equals(completed) ? this.completed : open;
+		}
+	}
+
+	private static class Snapshot {
+		private final long modification;
+		private final LocalDate day;
+		private final TaskStats stats;
+
+		Snapshot(long modification, LocalDate day, TaskStats stats) {
+			this.modification = modification;
+			this.day = day;
+			this.stats = stats;
+		}
+	}
+}
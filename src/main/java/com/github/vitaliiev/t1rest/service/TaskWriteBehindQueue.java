@@ -0,0 +1,166 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskChangeEvent;
+import com.github.vitaliiev.t1rest.model.TaskQueueFullException;
+import com.github.vitaliiev.t1rest.repository.TaskStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded buffer of tasks with pre-assigned ids, written by a single writer thread with multi-row inserts.
+ * The writer flushes when a full batch is queued or the flush interval elapsed, whichever comes first.
+ * Producers never block: the bound is enforced by reserving a slot with a CAS on the size counter, and a
+ * task that does not fit is rejected.
+ * <p>
+ * On shutdown the queue stops accepting tasks and the writer drains it before the data source is closed.
+ * Tasks queued when the process is killed are lost, and a task is not readable before its batch committed.
+ */
+@Slf4j
+@ConditionalOnProperty(name = "t1rest.write-behind.enabled", havingValue = "true")
+@Service
+public class TaskWriteBehindQueue {
+
+	private final TaskStore taskStore;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final int capacity;
+	private final int batchSize;
+	private final long flushIntervalNanos;
+
+	private final ConcurrentLinkedQueue<Task> queue = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger size = new AtomicInteger();
+	private final Thread writer;
+	private volatile boolean accepting = true;
+
+	private final Counter accepted;
+	private final Counter rejected;
+	private final Counter written;
+	private final Counter failed;
+	private final Timer flushTimer;
+
+	public TaskWriteBehindQueue(TaskStore taskStore, PlatformTransactionManager transactionManager,
+			ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+			@Value("${t1rest.write-behind.capacity:10000}") int capacity,
+			@Value("${t1rest.write-behind.batch-size:500}") int batchSize,
+			@Value("${t1rest.write-behind.flush-interval:50ms}") Duration flushInterval) {
+		this.taskStore = taskStore;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.eventPublisher = eventPublisher;
+		this.capacity = capacity;
+		this.batchSize = batchSize;
+		this.flushIntervalNanos = flushInterval.toNanos();
+		Gauge.builder("tasks.writebehind.queue.depth", size, AtomicInteger::get)
+				.description("Tasks accepted but not yet written")
+				.register(meterRegistry);
+		this.accepted = Counter.builder("tasks.writebehind.accepted").register(meterRegistry);
+		this.rejected = Counter.builder("tasks.writebehind.rejected").register(meterRegistry);
+		this.written = Counter.builder("tasks.writebehind.written").register(meterRegistry);
+		this.failed = Counter.builder("tasks.writebehind.failed").register(meterRegistry);
+		this.flushTimer = Timer.builder("tasks.writebehind.flush").register(meterRegistry);
+		this.writer = new Thread(this::run, "task-write-behind");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	public void enqueue(Task task) throws TaskQueueFullException {
+		if (!accepting || !reserve()) {
+			rejected.increment();
+			throw new TaskQueueFullException();
+		}
+		queue.offer(task);
+		accepted.increment();
+		if (size.get() >= batchSize) {
+			LockSupport.unpark(writer);
+		}
+	}
+
+	public int size() {
+		return size.get();
+	}
+
+	@PreDestroy
+	public void close() throws InterruptedException {
+		accepting = false;
+		LockSupport.unpark(writer);
+		writer.join(TimeUnit.SECONDS.toMillis(30));
+		if (size.get() > 0) {
+			log.error("{} queued tasks were not written before shutdown", size.get());
+		}
+	}
+
+	private boolean reserve() {
+		while (true) {
+			int current = size.get();
+			if (current >= capacity) {
+				return false;
+			}
+			if (size.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	private void run() {
+		List<Task> batch = new ArrayList<>(batchSize);
+		while (accepting || size.get() > 0) {
+			if (accepting && size.get() < batchSize) {
+				LockSupport.parkNanos(this, flushIntervalNanos);
+			}
+			Task task;
+			while (batch.size() < batchSize && (task = queue.poll()) != null) {
+				batch.add(task);
+			}
+			if (batch.isEmpty()) {
+				continue;
+			}
+			flushTimer.record(() -> write(batch));
+			size.addAndGet(-batch.size());
+			batch.clear();
+		}
+	}
+
+	// a failed batch is retried row by row so one bad task does not drop the others
+	private void write(List<Task> batch) {
+		try {
+			insert(batch);
+			written.increment(batch.size());
+		} catch (RuntimeException e) {
+			log.warn("Batch insert of {} tasks failed, retrying one by one", batch.size(), e);
+			for (Task task : batch) {
+				try {
+					insert(List.of(task));
+					written.increment();
+				} catch (RuntimeException rowFailure) {
+					failed.increment();
+					log.error("Dropping queued task [{}]", task.getId(), rowFailure);
+				}
+			}
+		}
+	}
+
+	private void insert(List<Task> tasks) {
+		transactionTemplate.executeWithoutResult(status -> {
+			taskStore.insertAll(tasks);
+			tasks.forEach(task -> eventPublisher.publishEvent(TaskChangeEvent.created(task)));
+		});
+	}
+}
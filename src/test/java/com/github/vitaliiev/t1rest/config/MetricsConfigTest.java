@@ -0,0 +1,46 @@
+package com.github.vitaliiev.t1rest.config;
+
+import com.github.vitaliiev.t1rest.model.TaskNotFountException;
+import com.github.vitaliiev.t1rest.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WithMockUser
+@AutoConfigureObservability
+@AutoConfigureMockMvc
+@SpringBootTest
+class MetricsConfigTest {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private TaskService taskService;
+
+	@Test
+	void prometheus_WhenServiceCalled_ExpectTimersAndInfrastructureMetrics() throws Exception {
+		taskService.getTasks(null);
+		assertThrows(TaskNotFountException.class, () -> taskService.getTask(UUID.randomUUID()));
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(allOf(
+						containsString("tasks_service_seconds_bucket"),
+						containsString("method=\"getTasks\""),
+						containsString("exception=\"TaskNotFountException\""),
+						containsString("hikaricp_connections"),
+						containsString("hibernate_"),
+						containsString("jvm_gc_"),
+						containsString("cache_gets_total"))));
+	}
+}
@@ -0,0 +1,67 @@
+package com.github.vitaliiev.t1rest.config;
+
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import com.github.vitaliiev.t1rest.repository.TaskRepository;
+import com.github.vitaliiev.t1rest.service.TaskService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the service against the {@code replicas} profile and tells the pools apart by their Hikari
+ * acquisition timers. The health check is pushed out so that only the calls under test borrow connections.
+ */
+@ActiveProfiles("replicas")
+@SpringBootTest(properties = "t1rest.datasource.health-check-interval=PT1H")
+class ReplicaRoutingConfigTest {
+
+	private static final String PRIMARY_POOL = "primary";
+
+	@Autowired
+	private TaskService taskService;
+	@Autowired
+	private TaskRepository repository;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void getTask_ThenUpdate_ExpectReadFromReplicaAndWriteToPrimary() throws Exception {
+		// saved without publishing a change, so no indexing runs in the background
+		Task task = new Task();
+		task.setTitle("24a");
+		task.setDescription("24a");
+		task.setDueDate(LocalDate.now());
+		task.setCompleted(false);
+		task = repository.save(task);
+
+		long primary = acquisitions(PRIMARY_POOL);
+		long replicas = replicaAcquisitions();
+		assertEquals("24a", taskService.getTask(task.getId()).getTitle());
+		assertEquals(primary, acquisitions(PRIMARY_POOL));
+		assertEquals(replicas + 1, replicaAcquisitions());
+
+		primary = acquisitions(PRIMARY_POOL);
+		taskService.updateTask(task.getId(), UpdateTaskDto.builder().completed(true).build());
+		assertTrue(acquisitions(PRIMARY_POOL) > primary);
+
+		taskService.deleteTask(task.getId());
+	}
+
+	private long replicaAcquisitions() {
+		return Stream.of("replica-1", "replica-2").mapToLong(this::acquisitions).sum();
+	}
+
+	private long acquisitions(String pool) {
+		Timer timer = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+		return timer == null ? 0 : timer.count();
+	}
+}
@@ -0,0 +1,188 @@
+package com.github.vitaliiev.t1rest.config;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+	private static final String PRIMARY = "jdbc:h2:mem:routing-primary";
+	private static final String REPLICA_1 = "jdbc:h2:mem:routing-replica-1";
+	private static final String REPLICA_2 = "jdbc:h2:mem:routing-replica-2";
+	private static final String BROKEN = "jdbc:unknown:routing-replica";
+
+	private final AtomicReference<List<String>> client = new AtomicReference<>(List.of());
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+	@Test
+	void getConnection_WhenNotReadOnly_ExpectPrimary() throws Exception {
+		ReplicaRoutingDataSource dataSource = routing(REPLICA_1, REPLICA_2);
+		assertEquals(PRIMARY, url(dataSource));
+	}
+
+	@Test
+	void getConnection_WhenReadOnly_ExpectReplicasRoundRobin() throws Exception {
+		ReplicaRoutingDataSource dataSource = routing(REPLICA_1, REPLICA_2);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		String first = url(dataSource);
+		String second = url(dataSource);
+		assertNotEquals(first, second);
+		assertTrue(List.of(REPLICA_1, REPLICA_2).containsAll(List.of(first, second)));
+		assertEquals(first, url(dataSource));
+	}
+
+	@Test
+	void getConnection_WhenReplicaFails_ExpectOtherReplica() throws Exception {
+		ReplicaRoutingDataSource dataSource = routing(BROKEN, REPLICA_2);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		for (int i = 0; i < 4; i++) {
+			assertEquals(REPLICA_2, url(dataSource));
+		}
+		assertEquals(1, dataSource.healthyReplicas());
+		dataSource.checkReplicas();
+		assertEquals(1, dataSource.healthyReplicas());
+	}
+
+	@Test
+	void getConnection_WhenFailedReplicaRecovers_ExpectSkippedUntilHealthCheckPasses() throws Exception {
+		SwitchableDataSource replica = new SwitchableDataSource(REPLICA_1);
+		ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(new DriverManagerDataSource(PRIMARY),
+				List.of(replica), client::get, Duration.ofMinutes(1));
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		replica.down = true;
+		assertEquals(PRIMARY, url(dataSource));
+		dataSource.checkReplicas();
+		assertEquals(0, dataSource.healthyReplicas());
+
+		replica.down = false;
+		assertEquals(PRIMARY, url(dataSource));
+		dataSource.checkReplicas();
+		assertEquals(1, dataSource.healthyReplicas());
+		assertEquals(REPLICA_1, url(dataSource));
+	}
+
+	@Test
+	void getConnection_WhenCredentialsGiven_ExpectRoutedLikeDefault() throws Exception {
+		ReplicaRoutingDataSource dataSource = routing(REPLICA_1);
+		try (Connection connection = dataSource.getConnection("sa", "")) {
+			assertEquals(PRIMARY, connection.getMetaData().getURL());
+		}
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		try (Connection connection = dataSource.getConnection("sa", "")) {
+			assertEquals(REPLICA_1, connection.getMetaData().getURL());
+		}
+	}
+
+	@Test
+	void getConnection_WhenNoHealthyReplica_ExpectPrimary() throws Exception {
+		ReplicaRoutingDataSource dataSource = routing(BROKEN);
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertEquals(PRIMARY, url(dataSource));
+		assertEquals(PRIMARY, url(dataSource));
+	}
+
+	@Test
+	void getConnection_WhenClientWroteRecently_ExpectPrimaryForItsReads() throws Exception {
+		ReplicaRoutingDataSource dataSource = routing(REPLICA_1);
+		client.set(List.of("alice"));
+		assertEquals(PRIMARY, url(dataSource));
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertEquals(PRIMARY, url(dataSource));
+
+		client.set(List.of("bob"));
+		assertEquals(REPLICA_1, url(dataSource));
+		client.set(List.of());
+		assertEquals(REPLICA_1, url(dataSource));
+	}
+
+	@Test
+	void getConnection_WhenTwoClientsOfOneUser_ExpectOnlyWriterSticky() throws Exception {
+		ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(new DriverManagerDataSource(PRIMARY),
+				List.of(new DriverManagerDataSource(REPLICA_1)), ClientKeyFilter::currentClientKeys, Duration.ofMinutes(1));
+		MockHttpServletResponse write = new MockHttpServletResponse();
+		assertEquals(PRIMARY, request(dataSource, "PUT", "10.0.0.1", null, false, write));
+		Cookie writer = write.getCookie(ClientKeyFilter.COOKIE_NAME);
+		assertNotNull(writer);
+
+		// a second client behind the same gateway address, and one elsewhere
+		Cookie reader = new Cookie(ClientKeyFilter.COOKIE_NAME, "reader");
+		assertEquals(REPLICA_1, request(dataSource, "GET", "10.0.0.1", reader, true, new MockHttpServletResponse()));
+		assertEquals(REPLICA_1, request(dataSource, "GET", "10.0.0.2", null, true, new MockHttpServletResponse()));
+
+		assertEquals(PRIMARY, request(dataSource, "GET", "10.0.0.1", writer, true, new MockHttpServletResponse()));
+		// a writer not returning the cookie is recognized by its address
+		assertEquals(PRIMARY, request(dataSource, "GET", "10.0.0.1", null, true, new MockHttpServletResponse()));
+	}
+
+	private static String request(ReplicaRoutingDataSource dataSource, String method, String remoteAddress,
+			Cookie cookie, boolean readOnly, MockHttpServletResponse response) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, "/tasks");
+		request.setRemoteAddr(remoteAddress);
+		if (cookie != null) {
+			request.setCookies(cookie);
+		}
+		AtomicReference<String> url = new AtomicReference<>();
+		new ClientKeyFilter().doFilter(request, response, (filteredRequest, filteredResponse) -> {
+			// bound by the DispatcherServlet in the application
+			RequestContextHolder.setRequestAttributes(new ServletRequestAttributes((HttpServletRequest) filteredRequest));
+			TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+			try {
+				url.set(url(dataSource));
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			} finally {
+				RequestContextHolder.resetRequestAttributes();
+			}
+		});
+		return url.get();
+	}
+
+	private ReplicaRoutingDataSource routing(String... replicaUrls) {
+		return new ReplicaRoutingDataSource(new DriverManagerDataSource(PRIMARY),
+				Arrays.stream(replicaUrls).<DataSource>map(DriverManagerDataSource::new).toList(),
+				client::get, Duration.ofMinutes(1));
+	}
+
+	private static String url(ReplicaRoutingDataSource dataSource) throws SQLException {
+		try (Connection connection = dataSource.getConnection()) {
+			return connection.getMetaData().getURL();
+		}
+	}
+
+	private static final class SwitchableDataSource extends DriverManagerDataSource {
+		private volatile boolean down;
+
+		private SwitchableDataSource(String url) {
+			super(url);
+		}
+
+		@Override
+		protected Connection getConnectionFromDriver(String username, String password) throws SQLException {
+			if (down) {
+				throw new SQLException("Replica is down");
+			}
+			return super.getConnectionFromDriver(username, password);
+		}
+	}
+}
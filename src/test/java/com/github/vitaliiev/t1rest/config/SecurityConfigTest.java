@@ -0,0 +1,49 @@
+package com.github.vitaliiev.t1rest.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+		"t1rest.address-rate-limit.requests-per-second=0.001",
+		"t1rest.address-rate-limit.burst=1"
+})
+class SecurityConfigTest {
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void getTasks_WhenBadCredentialsRepeated_ExpectRateLimitedBeforeAuthentication() throws Exception {
+		mockMvc.perform(get("/tasks").with(httpBasic("admin", "wrong")).with(remoteAddress("10.0.0.1")))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/tasks").with(httpBasic("admin", "wrong")).with(remoteAddress("10.0.0.1")))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+	}
+
+	@Test
+	void getTasks_WhenValidCredentialsRepeated_ExpectAddressNotCharged() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			mockMvc.perform(get("/tasks").with(httpBasic("admin", "admin")).with(remoteAddress("10.0.0.2")))
+					.andExpect(status().isOk());
+		}
+		mockMvc.perform(get("/tasks").with(httpBasic("admin", "wrong")).with(remoteAddress("10.0.0.2")))
+				.andExpect(status().isUnauthorized());
+	}
+
+	private static RequestPostProcessor remoteAddress(String address) {
+		return request -> {
+			request.setRemoteAddr(address);
+			return request;
+		};
+	}
+}
@@ -0,0 +1,84 @@
+package com.github.vitaliiev.t1rest.config;
+
+import com.github.vitaliiev.t1rest.model.BatchItemResult;
+import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against the embedded server, which compresses responses; MockMvc does not. The JDK client does not
+ * decompress, so Content-Encoding is seen as sent.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class WebConfigTest {
+	@LocalServerPort
+	private int port;
+	@Autowired
+	private TaskService taskService;
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	@Test
+	void getTasks_WhenPageOver2KB_ExpectGzipWithWeakETag() throws Exception {
+		List<UUID> ids = taskService.createTasks(IntStream.range(0, 50)
+						.mapToObj(i -> CreateTaskDto.builder()
+								.title("compressed list page title " + i)
+								.description("18a")
+								.dueDate(LocalDate.now())
+								.completed(false)
+								.build())
+						.toList())
+				.stream()
+				.map(BatchItemResult::getId)
+				.toList();
+
+		HttpResponse<byte[]> response = get("/tasks");
+		assertEquals(200, response.statusCode());
+		assertEquals("gzip", response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+		assertTrue(response.headers().firstValue(HttpHeaders.ETAG).orElseThrow().startsWith("W/"));
+		taskService.deleteTasks(ids);
+	}
+
+	@Test
+	void getTask_WhenBodyOver2KB_ExpectGzipWithWeakETag() throws Exception {
+		UUID id = taskService.createTask(CreateTaskDto.builder()
+				.title("18b")
+				.description("compressed task description ".repeat(100))
+				.dueDate(LocalDate.now())
+				.completed(false)
+				.build()).getId();
+
+		HttpResponse<byte[]> response = get("/tasks/" + id);
+		assertEquals(200, response.statusCode());
+		assertEquals("gzip", response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+		assertEquals("W/\"0\"", response.headers().firstValue(HttpHeaders.ETAG).orElse(null));
+		taskService.deleteTask(id);
+	}
+
+	private HttpResponse<byte[]> get(String path) throws Exception {
+		String credentials = Base64.getEncoder().encodeToString("admin:admin".getBytes(StandardCharsets.UTF_8));
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+				.header(HttpHeaders.AUTHORIZATION, "Basic " + credentials)
+				.header(HttpHeaders.ACCEPT, "application/json")
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+				.build();
+		return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+	}
+}
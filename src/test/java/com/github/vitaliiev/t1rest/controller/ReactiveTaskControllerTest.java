@@ -0,0 +1,311 @@
+package com.github.vitaliiev.t1rest.controller;
+
+import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskStats;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import com.github.vitaliiev.t1rest.repository.TaskRepository;
+import com.github.vitaliiev.t1rest.service.TaskStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ReactiveTaskControllerTest {
+	@Autowired
+	private WebTestClient webTestClient;
+	@Autowired
+	private TaskRepository repository;
+	@Autowired
+	private TaskStatsService taskStatsService;
+
+	private WebTestClient client;
+
+	private static final String API_URL = "/tasks";
+	private static final String API_URL_TEMPLATE = "/tasks/{id}";
+
+	@BeforeEach
+	void setUp() {
+		client = webTestClient.mutate()
+				.defaultHeaders(headers -> headers.setBasicAuth("admin", "admin"))
+				.build();
+	}
+
+	@Test
+	void getTasks_WhenUnauthenticated_ExpectUnauthorized() {
+		webTestClient.get().uri(API_URL)
+				.exchange()
+				.expectStatus().isUnauthorized();
+	}
+
+	@Test
+	void getTasks_WhenOne_ReturnSummaryWithoutDescription() {
+		Task task = repository.save(createTask("r1", "r1", LocalDate.now(), true));
+		client.get().uri(API_URL)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.content.length()").isEqualTo(1)
+				.jsonPath("$.content[0].id").isEqualTo(task.getId().toString())
+				.jsonPath("$.content[0].description").doesNotExist()
+				.jsonPath("$.totalElements").isEqualTo(1);
+		repository.deleteById(task.getId());
+	}
+
+	@Test
+	void getTasks_WhenFilteredSortedAndSized_ExpectSameContractAsServlet() {
+		Task first = repository.save(createTask("rf-b", "rf", LocalDate.now(), false));
+		Task second = repository.save(createTask("rf-a", "rf", LocalDate.now(), false));
+		Task completed = repository.save(createTask("rf-c", "rf", LocalDate.now(), true));
+		client.get().uri(API_URL + "?completed=false&titlePrefix=rf-&sort=TITLE&size=1")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.content.length()").isEqualTo(1)
+				.jsonPath("$.content[0].title").isEqualTo("rf-a")
+				.jsonPath("$.size").isEqualTo(1)
+				.jsonPath("$.totalElements").isEqualTo(2);
+		client.get().uri(API_URL + "?titlePrefix=rf_")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.content.length()").isEqualTo(0);
+		repository.deleteAllById(List.of(first.getId(), second.getId(), completed.getId()));
+	}
+
+	@Test
+	void getTasks_WhenSizeExceedsMax_ExpectBadRequest() {
+		client.get().uri(API_URL + "?size=501")
+				.exchange()
+				.expectStatus().isBadRequest();
+	}
+
+	@Test
+	void getTasks_WhenIfNoneMatchCurrentETag_ExpectNotModified() {
+		Task task = repository.save(createTask("r9", "r9", LocalDate.now(), false));
+		String eTag = client.get().uri(API_URL)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody().returnResult()
+				.getResponseHeaders().getETag();
+		assertNotNull(eTag);
+		assertTrue(eTag.startsWith("W/"));
+		client.get().uri(API_URL)
+				.header(HttpHeaders.IF_NONE_MATCH, eTag)
+				.exchange()
+				.expectStatus().isNotModified();
+		repository.deleteById(task.getId());
+	}
+
+	@Test
+	void getTask_WhenIfNoneMatchCurrentVersion_ExpectNotModified() {
+		Task task = repository.save(createTask("r10", "r10", LocalDate.now(), false));
+		client.get().uri(API_URL_TEMPLATE, task.getId())
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"0\"");
+		client.get().uri(API_URL_TEMPLATE, task.getId())
+				.header(HttpHeaders.IF_NONE_MATCH, "W/\"0\"")
+				.exchange()
+				.expectStatus().isNotModified();
+		repository.deleteById(task.getId());
+	}
+
+	@Test
+	void updateTask_WhenIfMatch_ExpectPreconditionChecked() {
+		Task task = repository.save(createTask("r11", "r11", LocalDate.now(), false));
+		client.put().uri(API_URL_TEMPLATE, task.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.IF_MATCH, "\"5\"")
+				.bodyValue(updateTaskDto(null, null, null, true))
+				.exchange()
+				.expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+		client.put().uri(API_URL_TEMPLATE, task.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.IF_MATCH, "W/\"0\"")
+				.bodyValue(updateTaskDto(null, null, null, true))
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().valueEquals(HttpHeaders.ETAG, "W/\"1\"");
+		assertTrue(repository.findById(task.getId()).orElseThrow().getCompleted());
+		repository.deleteById(task.getId());
+	}
+
+	@Test
+	void deleteTask_WhenIfMatch_ExpectPreconditionChecked() {
+		Task task = repository.save(createTask("r12", "r12", LocalDate.now(), false));
+		client.delete().uri(API_URL_TEMPLATE, task.getId())
+				.header(HttpHeaders.IF_MATCH, "\"5\"")
+				.exchange()
+				.expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+		assertTrue(repository.existsById(task.getId()));
+		client.delete().uri(API_URL_TEMPLATE, task.getId())
+				.header(HttpHeaders.IF_MATCH, "\"0\"")
+				.exchange()
+				.expectStatus().isOk();
+		assertFalse(repository.existsById(task.getId()));
+		client.delete().uri(API_URL_TEMPLATE, task.getId())
+				.header(HttpHeaders.IF_MATCH, "*")
+				.exchange()
+				.expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+	}
+
+	@Test
+	void createTask_WhenValidDto_ExpectSuccess() {
+		Task created = client.post().uri(API_URL)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(createTaskDto("r2", "r2", LocalDate.now(), false))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(Task.class)
+				.returnResult()
+				.getResponseBody();
+		assertNotNull(created);
+		assertNotNull(created.getId());
+		Task stored = repository.findById(created.getId()).orElseThrow();
+		assertEquals("r2", stored.getTitle());
+		repository.deleteById(created.getId());
+	}
+
+	@Test
+	void createTask_WhenInvalidDto_ExpectBadRequest() {
+		client.post().uri(API_URL)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(createTaskDto(null, "r3", LocalDate.now(), false))
+				.exchange()
+				.expectStatus().isBadRequest();
+		assertEquals(0, repository.count());
+	}
+
+	@Test
+	void getTask_WhenExist_ExpectOne() {
+		Task task = repository.save(createTask("r4", "r4 description", LocalDate.now(), true));
+		client.get().uri(API_URL_TEMPLATE, task.getId())
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.title").isEqualTo("r4")
+				.jsonPath("$.description").isEqualTo("r4 description");
+		repository.deleteById(task.getId());
+	}
+
+	@Test
+	void getTask_WhenDoesntExist_Expect404() {
+		client.get().uri(API_URL_TEMPLATE, UUID.randomUUID())
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	void updateTask_WhenPartialUpdateDtoAndExists_ExpectSuccess() {
+		Task task = repository.save(createTask("r5", "r5", LocalDate.now(), false));
+		client.put().uri(API_URL_TEMPLATE, task.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(updateTaskDto(null, null, null, true))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.title").isEqualTo("r5")
+				.jsonPath("$.completed").isEqualTo(true);
+		Task stored = repository.findById(task.getId()).orElseThrow();
+		assertTrue(stored.getCompleted());
+		assertEquals(task.getVersion() + 1, stored.getVersion());
+		repository.deleteById(task.getId());
+	}
+
+	@Test
+	void updateTask_WhenValidDtoAndDoesntExist_Expect404() {
+		client.put().uri(API_URL_TEMPLATE, UUID.randomUUID())
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(updateTaskDto("r6", null, null, null))
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	void deleteTask_WhenExists_ExpectSuccess() {
+		Task task = repository.save(createTask("r7", "r7", LocalDate.now(), true));
+		client.delete().uri(API_URL_TEMPLATE, task.getId())
+				.exchange()
+				.expectStatus().isOk();
+		assertFalse(repository.existsById(task.getId()));
+	}
+
+	@Test
+	void deleteTask_WhenDoesntExist_Expect404() {
+		client.delete().uri(API_URL_TEMPLATE, UUID.randomUUID())
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@Test
+	void createUpdateDelete_ExpectStatsFollowChangeEvents() {
+		taskStatsService.reconcile();
+		TaskStats before = taskStatsService.getStats();
+		Task created = client.post().uri(API_URL)
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(createTaskDto("r8", "r8", LocalDate.now().minusDays(1), false))
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody(Task.class)
+				.returnResult()
+				.getResponseBody();
+		assertNotNull(created);
+		assertEquals(before.getTotal() + 1, taskStatsService.getStats().getTotal());
+		assertEquals(before.getOverdue() + 1, taskStatsService.getStats().getOverdue());
+
+		client.put().uri(API_URL_TEMPLATE, created.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(updateTaskDto(null, null, null, true))
+				.exchange()
+				.expectStatus().isOk();
+		assertEquals(before.getOverdue(), taskStatsService.getStats().getOverdue());
+		assertEquals(before.getCompleted() + 1, taskStatsService.getStats().getCompleted());
+
+		client.delete().uri(API_URL_TEMPLATE, created.getId())
+				.exchange()
+				.expectStatus().isOk();
+		assertEquals(before.getTotal(), taskStatsService.getStats().getTotal());
+		assertEquals(before.getCompleted(), taskStatsService.getStats().getCompleted());
+	}
+
+	private Task createTask(String title, String description, LocalDate dueDate, Boolean completed) {
+		Task task = new Task();
+		task.setTitle(title);
+		task.setDescription(description);
+		task.setDueDate(dueDate);
+		task.setCompleted(completed);
+		return task;
+	}
+
+	private CreateTaskDto createTaskDto(String title, String description, LocalDate dueDate, Boolean completed) {
+		return CreateTaskDto.builder()
+				.title(title)
+				.description(description)
+				.dueDate(dueDate)
+				.completed(completed)
+				.build();
+	}
+
+	private UpdateTaskDto updateTaskDto(String title, String description, LocalDate dueDate, Boolean completed) {
+		return UpdateTaskDto.builder()
+				.title(title)
+				.description(description)
+				.dueDate(dueDate)
+				.completed(completed)
+				.build();
+	}
+}
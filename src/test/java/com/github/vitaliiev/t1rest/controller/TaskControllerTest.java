@@ -1,19 +1,28 @@
 package com.github.vitaliiev.t1rest.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.github.vitaliiev.t1rest.model.CreateTaskDto;
 import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskFilter;
 import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
 import com.github.vitaliiev.t1rest.repository.TaskRepository;
+import com.github.vitaliiev.t1rest.repository.TaskSpecifications;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,6 +43,14 @@ class TaskControllerTest {
 
 	private static final String API_URL = "/tasks";
 	private static final String API_URL_TEMPLATE = "/tasks/{id}";
+	private static final String SCROLL_URL = "/tasks/scroll";
+	private static final String SLICE_URL = "/tasks/slice";
+	private static final String STATS_URL = "/tasks/stats";
+	private static final String BATCH_URL = "/tasks/batch";
+	private static final String EXPORT_URL = "/tasks/export";
+	private static final String IMPORT_URL = "/tasks/import";
+	private static final String CHANGES_URL = "/tasks/changes";
+	private static final String SEARCH_URL = "/tasks/search";
 
 	@Test
 	void getTasks_WhenEmpty_ReturnEmptyList() throws Exception {
@@ -54,6 +71,18 @@ class TaskControllerTest {
 	}
 
 
+	@Test
+	void getTasks_WhenOne_ReturnSummaryWithoutDescription() throws Exception {
+		Task task = repository.save(createTask("1e", "1e", LocalDate.now(), true));
+		mockMvc.perform(get(API_URL))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[0].id", is(task.getId().toString())))
+				.andExpect(jsonPath("$.content[0].title", is("1e")))
+				.andExpect(jsonPath("$.content[0].description").doesNotExist());
+		repository.delete(task);
+	}
+
+
 	@Test
 	void getTasks_WhenOnePageParamSet_ReturnOne() throws Exception {
 		Task task = repository.save(createTask("1a", "1a", LocalDate.now(), true));
@@ -75,6 +104,175 @@ class TaskControllerTest {
 	}
 
 
+	@Test
+	void getTasks_WhenFilterParamsSet_ReturnMatching() throws Exception {
+		Task open = repository.save(createTask("1c", "1c", LocalDate.now(), false));
+		Task done = repository.save(createTask("1d", "1d", LocalDate.now(), true));
+		mockMvc.perform(get(API_URL)
+						.param("completed", "false")
+						.param("dueFrom", LocalDate.now().toString())
+						.param("titlePrefix", "1")
+						.param("sort", "TITLE"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.content", hasSize(1)))
+				.andExpect(jsonPath("$.content[0].title", is("1c")));
+		repository.delete(open);
+		repository.delete(done);
+	}
+
+	@Test
+	void getTasks_WhenSizeParamOutOfRange_ExpectBadRequest() throws Exception {
+		mockMvc.perform(get(API_URL).param("size", "0"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get(API_URL).param("size", "100000"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void getTasks_WhenOffsetExceedsInt_ExpectEmptyPage() throws Exception {
+		Task task = repository.save(createTask("1i", "1i", LocalDate.now(), true));
+		mockMvc.perform(get(API_URL).param("page", "10000000").param("size", "500"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content", empty()))
+				.andExpect(jsonPath("$.totalElements", is(1)));
+		mockMvc.perform(get(SLICE_URL).param("page", "10000000").param("size", "500"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content", empty()))
+				.andExpect(jsonPath("$.last", is(true)));
+		repository.delete(task);
+	}
+
+	@Test
+	void getTaskSlice_WhenOne_ReturnOneWithoutTotal() throws Exception {
+		Task task = repository.save(createTask("1h", "1h", LocalDate.now(), true));
+		mockMvc.perform(get(SLICE_URL).param("size", "10"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content", hasSize(1)))
+				.andExpect(jsonPath("$.last", is(true)))
+				.andExpect(jsonPath("$.totalElements").doesNotExist());
+		repository.delete(task);
+	}
+
+	@Test
+	void getStats_WhenTaskCreatedAndDeleted_ExpectCountersFollow() throws Exception {
+		String before = stats();
+		String created = mockMvc.perform(post(API_URL)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(createTaskDto("1s", "1s", LocalDate.now().plusDays(1), false))))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		String afterCreate = stats();
+		assertEquals(counter(before, "$.total") + 1, counter(afterCreate, "$.total"));
+		assertEquals(counter(before, "$.open") + 1, counter(afterCreate, "$.open"));
+		assertEquals(counter(before, "$.dueNextSevenDays") + 1, counter(afterCreate, "$.dueNextSevenDays"));
+		assertEquals(counter(before, "$.overdue"), counter(afterCreate, "$.overdue"));
+		assertEquals(counter(before, "$.completed"), counter(afterCreate, "$.completed"));
+
+		mockMvc.perform(delete(API_URL_TEMPLATE, JsonPath.<String>read(created, "$.id")))
+				.andExpect(status().isOk());
+		String afterDelete = stats();
+		for (String counter : List.of("$.total", "$.open", "$.completed", "$.overdue", "$.dueNextSevenDays")) {
+			assertEquals(counter(before, counter), counter(afterDelete, counter), counter);
+		}
+	}
+
+	@Test
+	void getTasks_WhenSortParamInvalid_ExpectBadRequest() throws Exception {
+		mockMvc.perform(get(API_URL).param("sort", "unknown"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void scrollTasks_WhenOne_ReturnOneWithoutCursor() throws Exception {
+		Task task = repository.save(createTask("1b", "1b", LocalDate.now(), true));
+		mockMvc.perform(get(SCROLL_URL))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.content", hasSize(1)))
+				.andExpect(jsonPath("$.nextCursor", nullValue()));
+		repository.delete(task);
+	}
+
+	@Test
+	void scrollTasks_WhenCursorInvalid_ExpectBadRequest() throws Exception {
+		mockMvc.perform(get(SCROLL_URL).param("cursor", "not-a-cursor"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void exportTasks_WhenTwo_ExpectTwoJsonLines() throws Exception {
+		Task first = repository.save(createTask("1f", "1f description", LocalDate.now(), true));
+		Task second = repository.save(createTask("1g", "1g description", LocalDate.now(), false));
+		MvcResult result = mockMvc.perform(get(EXPORT_URL))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andDo(r -> {
+					String[] lines = r.getResponse().getContentAsString().split("\n");
+					assertEquals(2, lines.length);
+					for (String line : lines) {
+						Task t = assertDoesNotThrow(() -> objectMapper.readValue(line, Task.class));
+						assertEquals(t.getTitle() + " description", t.getDescription());
+					}
+				});
+		repository.delete(first);
+		repository.delete(second);
+	}
+
+	@Test
+	void searchTasks_WhenQueryBlank_ExpectBadRequest() throws Exception {
+		mockMvc.perform(get(SEARCH_URL).param("q", " "))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void searchTasks_WhenNoMatch_ReturnEmptyPage() throws Exception {
+		mockMvc.perform(get(SEARCH_URL).param("q", "nonexistentword"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content", empty()))
+				.andExpect(jsonPath("$.totalElements", is(0)));
+	}
+
+	@Test
+	void rebuildSearchIndex_ExpectAccepted() throws Exception {
+		mockMvc.perform(post(SEARCH_URL + "/rebuild"))
+				.andExpect(status().isAccepted());
+	}
+
+	@Test
+	void streamChanges_WhenResumePointUnknown_ExpectResetEvent() throws Exception {
+		MvcResult result = mockMvc.perform(get(CHANGES_URL)
+						.header("Last-Event-ID", Long.MAX_VALUE))
+				.andExpect(request().asyncStarted())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+				.andReturn();
+		// the reset is replayed while subscribing, before the request returns
+		assertTrue(result.getResponse().getContentAsString().contains("event:reset"));
+		// ends the stream, which unsubscribes
+		result.getRequest().getAsyncContext().complete();
+	}
+
+	@Test
+	void importTasks_WhenSomeLinesInvalid_ExpectCountsAndLineNumbers() throws Exception {
+		String ndjson = String.join("\n",
+				objectMapper.writeValueAsString(createTaskDto("15a", "15a", LocalDate.now(), true)),
+				"",
+				objectMapper.writeValueAsString(createTaskDto(null, "15b", null, null)),
+				"{not json",
+				objectMapper.writeValueAsString(createTaskDto("15c", "15c", null, null)));
+		mockMvc.perform(post(IMPORT_URL)
+						.contentType(MediaType.APPLICATION_NDJSON)
+						.content(ndjson))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.accepted", is(2)))
+				.andExpect(jsonPath("$.rejected", is(2)))
+				.andExpect(jsonPath("$.errors[*].line", contains(3, 4)));
+		repository.deleteAll(repository.findAll(TaskSpecifications.matching(TaskFilter.builder().titlePrefix("15").build())));
+	}
+
 	@Test
 	void createTask_WhenValidDto_ExpectSuccess() throws Exception {
 		CreateTaskDto createTaskDto = createTaskDto("2", "2", LocalDate.now(), true);
@@ -142,6 +340,61 @@ class TaskControllerTest {
 		repository.delete(task);
 	}
 
+	@Test
+	void getTask_WhenETagMatches_ExpectNotModified() throws Exception {
+		Task task = repository.save(createTask("5b", "5b", LocalDate.now(), true));
+		mockMvc.perform(get(API_URL_TEMPLATE, task.getId()))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "W/\"0\""));
+		mockMvc.perform(get(API_URL_TEMPLATE, task.getId()).header(HttpHeaders.IF_NONE_MATCH, "W/\"0\""))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+		repository.delete(task);
+	}
+
+	@Test
+	void getTasks_WhenETagMatches_ExpectNotModified() throws Exception {
+		Task task = repository.save(createTask("5c", "5c", LocalDate.now(), true));
+		String eTag = mockMvc.perform(get(API_URL))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, startsWith("W/")))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get(API_URL).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+		repository.delete(task);
+	}
+
+	@Test
+	void getTask_WhenCborAccepted_ExpectCborBody() throws Exception {
+		Task task = repository.save(createTask("5d", "5d", LocalDate.now(), true));
+		ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+		mockMvc.perform(get(API_URL_TEMPLATE, task.getId()).accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andDo(r -> {
+					Task t = cborMapper.readValue(r.getResponse().getContentAsByteArray(), Task.class);
+					assertEquals(task.getId(), t.getId());
+					assertEquals(task.getDueDate(), t.getDueDate());
+				});
+		repository.delete(task);
+	}
+
+	@Test
+	void createTask_WhenSmileBody_ExpectSmileResponse() throws Exception {
+		MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+		ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+		MvcResult result = mockMvc.perform(post(API_URL)
+						.contentType(smile)
+						.accept(smile)
+						.content(smileMapper.writeValueAsBytes(createTaskDto("5e", "5e", LocalDate.now(), false))))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(smile))
+				.andReturn();
+		Task created = smileMapper.readValue(result.getResponse().getContentAsByteArray(), Task.class);
+		assertEquals("5e", created.getTitle());
+		repository.deleteById(created.getId());
+	}
+
 	@Test
 	void getTask_WhenDoesntExist_Expect404() throws Exception {
 		mockMvc.perform(get(API_URL_TEMPLATE, UUID.randomUUID()))
@@ -165,7 +418,7 @@ class TaskControllerTest {
 					assertEquals(t.getDueDate(), updateTaskDto.getDueDate());
 					assertEquals(t.getCompleted(), updateTaskDto.getCompleted());
 				}));
-		repository.delete(task);
+		repository.deleteById(task.getId());
 	}
 
 	@Test
@@ -185,7 +438,7 @@ class TaskControllerTest {
 					assertEquals(t.getDueDate(), task.getDueDate());
 					assertEquals(t.getCompleted(), updateTaskDto.getCompleted());
 				}));
-		repository.delete(task);
+		repository.deleteById(task.getId());
 	}
 
 	@Test
@@ -211,6 +464,85 @@ class TaskControllerTest {
 		repository.delete(task);
 	}
 
+	@Test
+	void updateTask_WhenIfMatchCurrent_ExpectSuccessWithNewETag() throws Exception {
+		Task task = repository.save(createTask("9a", "9a", LocalDate.now(), true));
+		UpdateTaskDto updateTaskDto = updateTaskDto(null, null, null, false);
+		mockMvc.perform(put(API_URL_TEMPLATE, task.getId())
+						.header(HttpHeaders.IF_MATCH, "\"0\"")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(updateTaskDto)))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "W/\"1\""))
+				.andExpect(jsonPath("$.completed", is(false)));
+		repository.deleteById(task.getId());
+	}
+
+	@Test
+	void updateTask_WhenIfMatchWeakETagFromGet_ExpectSuccess() throws Exception {
+		Task task = repository.save(createTask("9e", "9e", LocalDate.now(), true));
+		String eTag = mockMvc.perform(get(API_URL_TEMPLATE, task.getId()))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(put(API_URL_TEMPLATE, task.getId())
+						.header(HttpHeaders.IF_MATCH, eTag)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(updateTaskDto(null, null, null, false))))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "W/\"1\""));
+		repository.deleteById(task.getId());
+	}
+
+	@Test
+	void updateTask_WhenIfMatchStale_ExpectPreconditionFailed() throws Exception {
+		Task task = repository.save(createTask("9b", "9b", LocalDate.now(), true));
+		UpdateTaskDto updateTaskDto = updateTaskDto(null, null, null, false);
+		mockMvc.perform(put(API_URL_TEMPLATE, task.getId())
+						.header(HttpHeaders.IF_MATCH, "\"5\"")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(updateTaskDto)))
+				.andExpect(status().isPreconditionFailed());
+		assertTrue(repository.findById(task.getId()).orElseThrow().getCompleted());
+		repository.delete(task);
+	}
+
+	@Test
+	void deleteTask_WhenIfMatchStale_ExpectPreconditionFailed() throws Exception {
+		Task task = repository.save(createTask("11a", "11a", LocalDate.now(), true));
+		mockMvc.perform(delete(API_URL_TEMPLATE, task.getId())
+						.header(HttpHeaders.IF_MATCH, "\"5\""))
+				.andExpect(status().isPreconditionFailed());
+		assertTrue(repository.existsById(task.getId()));
+		mockMvc.perform(delete(API_URL_TEMPLATE, task.getId())
+						.header(HttpHeaders.IF_MATCH, "\"0\""))
+				.andExpect(status().isOk());
+		assertFalse(repository.existsById(task.getId()));
+	}
+
+	@Test
+	void updateTask_WhenIfMatchAnyAndDoesntExist_ExpectPreconditionFailed() throws Exception {
+		mockMvc.perform(put(API_URL_TEMPLATE, UUID.randomUUID())
+						.header(HttpHeaders.IF_MATCH, "*")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(updateTaskDto("9c", null, null, null))))
+				.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void deleteTask_WhenIfMatchAnyAndDoesntExist_ExpectPreconditionFailed() throws Exception {
+		mockMvc.perform(delete(API_URL_TEMPLATE, UUID.randomUUID())
+						.header(HttpHeaders.IF_MATCH, "*"))
+				.andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void deleteTask_WhenIfMatchAnyAndExists_ExpectSuccess() throws Exception {
+		Task task = repository.save(createTask("11b", "11b", LocalDate.now(), true));
+		mockMvc.perform(delete(API_URL_TEMPLATE, task.getId())
+						.header(HttpHeaders.IF_MATCH, "*"))
+				.andExpect(status().isOk());
+		assertFalse(repository.existsById(task.getId()));
+	}
+
 	@Test
 	void updateTask_WhenValidDtoAndDoesntExist_Expect404() throws Exception {
 		UpdateTaskDto updateTaskDto = updateTaskDto("10n", "10n", LocalDate.of(1, 1, 1), false);
@@ -231,6 +563,15 @@ class TaskControllerTest {
 	}
 
 
+	@Test
+	void deleteCompletedTasks_WhenOneMatches_ExpectCount() throws Exception {
+		Task old = repository.save(createTask("11e", "11e", LocalDate.now().minusDays(3), true));
+		mockMvc.perform(delete(API_URL + "/completed").param("dueBefore", LocalDate.now().toString()))
+				.andExpect(status().isOk())
+				.andExpect(content().string("1"));
+		assertFalse(repository.existsById(old.getId()));
+	}
+
 	@Test
 	void deleteTask_WhenDontExist_Expect404() throws Exception {
 		mockMvc.perform(delete(API_URL_TEMPLATE, UUID.randomUUID())
@@ -238,6 +579,57 @@ class TaskControllerTest {
 				.andExpect(status().isNotFound());
 	}
 
+	@Test
+	void createTasks_WhenValidDtos_ExpectCreatedResults() throws Exception {
+		List<CreateTaskDto> dtos = List.of(
+				createTaskDto("12a", "12a", LocalDate.now(), true),
+				createTaskDto("12b", "12b", null, null));
+		mockMvc.perform(post(BATCH_URL)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(dtos)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", hasSize(2)))
+				.andExpect(jsonPath("$[*].status", everyItem(is("CREATED"))))
+				.andDo(r -> {
+					List<String> ids = JsonPath.read(r.getResponse().getContentAsString(), "$[*].id");
+					ids.forEach(id -> repository.deleteById(UUID.fromString(id)));
+				});
+	}
+
+	@Test
+	void createTasks_WhenOneDtoInvalid_ExpectBadRequest() throws Exception {
+		List<CreateTaskDto> dtos = List.of(
+				createTaskDto("13a", "13a", LocalDate.now(), true),
+				createTaskDto(null, "13b", null, null));
+		mockMvc.perform(post(BATCH_URL)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(dtos)))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void deleteTasks_WhenOneMissing_ExpectPerItemResults() throws Exception {
+		Task task = repository.save(createTask("14", "14", LocalDate.now(), true));
+		List<UUID> ids = List.of(task.getId(), UUID.randomUUID());
+		mockMvc.perform(delete(BATCH_URL)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(objectMapper.writeValueAsString(ids)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].status", is("DELETED")))
+				.andExpect(jsonPath("$[1].status", is("NOT_FOUND")));
+		assertFalse(repository.existsById(task.getId()));
+	}
+
+	private String stats() throws Exception {
+		return mockMvc.perform(get(STATS_URL))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+	}
+
+	private static long counter(String stats, String path) {
+		return JsonPath.<Number>read(stats, path).longValue();
+	}
+
 	private Task createTask(String title, String description, LocalDate dueDate, Boolean completed) {
 		Task task = new Task();
 		task.setTitle(title);
@@ -0,0 +1,90 @@
+package com.github.vitaliiev.t1rest.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.model.TaskChange;
+import com.github.vitaliiev.t1rest.model.TaskChangeType;
+import com.github.vitaliiev.t1rest.service.TaskChangeFeed;
+import com.github.vitaliiev.t1rest.service.TaskChangeSubscriber;
+import com.github.vitaliiev.t1rest.service.TaskService;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WithMockUser
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "t1rest.write-behind.enabled=true")
+class TaskWriteBehindControllerTest {
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ObjectMapper objectMapper;
+	@Autowired
+	private TaskChangeFeed taskChangeFeed;
+	@Autowired
+	private TaskService taskService;
+
+	@Test
+	void createTask_WhenRespondAsync_ExpectAcceptedAndReadableAfterFlush() throws Exception {
+		BlockingQueue<TaskChange> changes = new LinkedBlockingQueue<>();
+		Runnable unsubscribe = taskChangeFeed.subscribe(null, new TaskChangeSubscriber() {
+			@Override
+			public void send(TaskChange change) {
+				changes.add(change);
+			}
+
+			@Override
+			public void complete() {
+			}
+		});
+		try {
+			CreateTaskDto createTaskDto = CreateTaskDto.builder()
+					.title("21a")
+					.description("21a description")
+					.dueDate(LocalDate.now())
+					.completed(false)
+					.build();
+			MvcResult accepted = mockMvc.perform(post("/tasks")
+							.header("Prefer", "respond-async")
+							.contentType(MediaType.APPLICATION_JSON)
+							.content(objectMapper.writeValueAsString(createTaskDto)))
+					.andExpect(status().isAccepted())
+					.andExpect(header().string("Preference-Applied", "respond-async"))
+					.andExpect(header().string(HttpHeaders.LOCATION, startsWith("/tasks/")))
+					.andReturn();
+			UUID id = UUID.fromString(JsonPath.read(accepted.getResponse().getContentAsString(), "$.id"));
+
+			// the writer publishes CREATED once the batch holding the task committed
+			TaskChange created = changes.poll(5, TimeUnit.SECONDS);
+			assertNotNull(created);
+			assertEquals(TaskChangeType.CREATED, created.getType());
+			assertEquals(id, created.getId());
+
+			mockMvc.perform(get(accepted.getResponse().getHeader(HttpHeaders.LOCATION)))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$.title", is("21a")))
+					.andExpect(jsonPath("$.description", is("21a description")));
+			taskService.deleteTask(id);
+		} finally {
+			unsubscribe.run();
+		}
+	}
+}
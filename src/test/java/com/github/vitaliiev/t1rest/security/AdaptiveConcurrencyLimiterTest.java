@@ -0,0 +1,56 @@
+package com.github.vitaliiev.t1rest.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100);
+
+	@Test
+	void tryAcquire_WhenLimitReached_ExpectRejectedUntilReleased() {
+		for (int i = 0; i < 20; i++) {
+			assertTrue(limiter.tryAcquire());
+		}
+		assertFalse(limiter.tryAcquire());
+		limiter.release(-1);
+		assertTrue(limiter.tryAcquire());
+		assertEquals(20, limiter.getInFlight());
+	}
+
+	@Test
+	void release_WhenLatencyStable_ExpectLimitGrows() {
+		saturate(100, TimeUnit.MILLISECONDS.toNanos(1));
+		assertTrue(limiter.getLimit() > 20);
+	}
+
+	@Test
+	void release_WhenLatencyRises_ExpectLimitShrinks() {
+		saturate(100, TimeUnit.MILLISECONDS.toNanos(1));
+		int limitBefore = limiter.getLimit();
+		saturate(100, TimeUnit.MILLISECONDS.toNanos(20));
+		assertTrue(limiter.getLimit() < limitBefore / 2);
+	}
+
+	@Test
+	void release_WhenFewRequestsInFlight_ExpectLimitUnchanged() {
+		for (int i = 0; i < 100; i++) {
+			limiter.tryAcquire();
+			limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		assertEquals(20, limiter.getLimit());
+	}
+
+	// keeps the limiter at its limit, completing one request per sample
+	private void saturate(int samples, long rttNanos) {
+		for (int i = 0; i < samples; i++) {
+			while (limiter.tryAcquire()) {
+				// fill up to the current limit
+			}
+			limiter.release(rttNanos);
+		}
+	}
+}
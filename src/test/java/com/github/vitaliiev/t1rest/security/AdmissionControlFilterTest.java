@@ -0,0 +1,86 @@
+package com.github.vitaliiev.t1rest.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+	private final AdmissionControlFilter filter =
+			new AdmissionControlFilter(new RateLimiter(1, 1, 100), AdmissionControlFilter::user, concurrencyLimiter,
+					meterRegistry);
+
+	@BeforeEach
+	void setUp() {
+		SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("user", null, "ROLE_USER"));
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void doFilter_WhenOverRate_Expect429WithRetryAfter() throws Exception {
+		assertEquals(200, filter("/tasks").getStatus());
+		MockHttpServletResponse response = filter("/tasks");
+		assertEquals(429, response.getStatus());
+		assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+		assertEquals(1, meterRegistry.get("http.server.requests.rejected").tag("reason", "rate-limit").counter().count());
+		assertEquals(0, concurrencyLimiter.getInFlight());
+	}
+
+	@Test
+	void doFilter_WhenConcurrencyLimitReached_Expect503WithRetryAfter() throws Exception {
+		concurrencyLimiter.tryAcquire();
+		MockHttpServletResponse response = filter("/tasks");
+		assertEquals(503, response.getStatus());
+		assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+		assertEquals(1, meterRegistry.get("http.server.requests.rejected").tag("reason", "concurrency-limit").counter().count());
+	}
+
+	@Test
+	void doFilter_WhenKeyedByAddress_ExpectAddressesLimitedSeparately() throws Exception {
+		AdmissionControlFilter addressFilter =
+				new AdmissionControlFilter(new RateLimiter(1, 1, 100), AdmissionControlFilter::address, null, meterRegistry);
+		assertEquals(200, filter(addressFilter, "10.0.0.1").getStatus());
+		assertEquals(429, filter(addressFilter, "10.0.0.1").getStatus());
+		assertEquals(200, filter(addressFilter, "10.0.0.2").getStatus());
+	}
+
+	@Test
+	void doFilter_WhenActuator_ExpectNotLimited() throws Exception {
+		concurrencyLimiter.tryAcquire();
+		for (int i = 0; i < 3; i++) {
+			assertEquals(200, filter("/actuator/health").getStatus());
+		}
+	}
+
+	private MockHttpServletResponse filter(String uri) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+		filter.doFilter(request, response, chain);
+		assertEquals(response.getStatus() == 200, chain.getRequest() != null);
+		return response;
+	}
+
+	private static MockHttpServletResponse filter(AdmissionControlFilter filter, String remoteAddr) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/tasks");
+		request.setRemoteAddr(remoteAddr);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+}
@@ -0,0 +1,50 @@
+package com.github.vitaliiev.t1rest.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthenticationFailureLimitFilterTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AuthenticationFailureLimitFilter filter =
+			new AuthenticationFailureLimitFilter(new RateLimiter(1, 1, 100), meterRegistry);
+
+	@Test
+	void doFilter_WhenAuthenticated_ExpectNeverLimited() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			assertEquals(200, filter("/tasks", "10.0.0.1", 200).getStatus());
+		}
+	}
+
+	@Test
+	void doFilter_WhenAuthenticationFailed_Expect429ForThatAddressOnly() throws Exception {
+		assertEquals(401, filter("/tasks", "10.0.0.1", 401).getStatus());
+		MockHttpServletResponse response = filter("/tasks", "10.0.0.1", 200);
+		assertEquals(429, response.getStatus());
+		assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+		assertEquals(1, meterRegistry.get("http.server.requests.rejected").tag("reason", "rate-limit").counter().count());
+		assertEquals(200, filter("/tasks", "10.0.0.2", 200).getStatus());
+	}
+
+	@Test
+	void doFilter_WhenActuator_ExpectNotLimited() throws Exception {
+		for (int i = 0; i < 3; i++) {
+			assertEquals(401, filter("/actuator/health", "10.0.0.1", 401).getStatus());
+		}
+	}
+
+	private MockHttpServletResponse filter(String uri, String remoteAddr, int status) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		request.setRemoteAddr(remoteAddr);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, (filteredRequest, filteredResponse) ->
+				((HttpServletResponse) filteredResponse).setStatus(status));
+		return response;
+	}
+}
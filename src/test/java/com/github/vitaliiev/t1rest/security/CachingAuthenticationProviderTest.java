@@ -0,0 +1,66 @@
+package com.github.vitaliiev.t1rest.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingAuthenticationProviderTest {
+
+	private final AtomicInteger encoderCalls = new AtomicInteger();
+	private final CachingAuthenticationProvider provider = new CachingAuthenticationProvider(daoProvider(), Duration.ofMinutes(1), 100);
+
+	@Test
+	void authenticate_WhenSameCredentialsTwice_ExpectPasswordCheckedOnce() {
+		Authentication first = provider.authenticate(token("user", "password"));
+		Authentication second = provider.authenticate(token("user", "password"));
+		assertTrue(first.isAuthenticated());
+		assertSame(first, second);
+		assertEquals(1, encoderCalls.get());
+	}
+
+	@Test
+	void authenticate_WhenWrongPassword_ExpectNotCached() {
+		provider.authenticate(token("user", "password"));
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("user", "wrong")));
+		assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("user", "wrong")));
+		assertEquals(3, encoderCalls.get());
+	}
+
+	private UsernamePasswordAuthenticationToken token(String username, String password) {
+		return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+	}
+
+	private DaoAuthenticationProvider daoProvider() {
+		PasswordEncoder bcrypt = new BCryptPasswordEncoder(4);
+		PasswordEncoder counting = new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				return bcrypt.encode(rawPassword);
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				encoderCalls.incrementAndGet();
+				return bcrypt.matches(rawPassword, encodedPassword);
+			}
+		};
+		DaoAuthenticationProvider daoProvider = new DaoAuthenticationProvider();
+		daoProvider.setPasswordEncoder(counting);
+		daoProvider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername("user")
+				.password(bcrypt.encode("password"))
+				.roles("USER")
+				.build()));
+		return daoProvider;
+	}
+}
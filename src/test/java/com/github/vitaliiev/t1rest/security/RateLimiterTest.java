@@ -0,0 +1,59 @@
+package com.github.vitaliiev.t1rest.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+	private final AtomicLong now = new AtomicLong();
+	private final RateLimiter rateLimiter = new RateLimiter(10, 3, 100, now::get);
+
+	@Test
+	void tryAcquire_WhenBurstUsed_ExpectWaitForNextPermit() {
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, rateLimiter.tryAcquire("user"));
+		}
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(100), rateLimiter.tryAcquire("user"));
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+		assertEquals(0, rateLimiter.tryAcquire("user"));
+		assertTrue(rateLimiter.tryAcquire("user") > 0);
+	}
+
+	@Test
+	void waitNanos_WhenBurstUsed_ExpectWaitWithoutTakingPermits() {
+		assertEquals(0, rateLimiter.waitNanos("user"));
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, rateLimiter.waitNanos("user"));
+			assertEquals(0, rateLimiter.tryAcquire("user"));
+		}
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(100), rateLimiter.waitNanos("user"));
+		now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+		assertEquals(0, rateLimiter.waitNanos("user"));
+		assertEquals(0, rateLimiter.tryAcquire("user"));
+	}
+
+	@Test
+	void tryAcquire_WhenIdle_ExpectBurstRefilledButNotExceeded() {
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.tryAcquire("user");
+		}
+		now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+		for (int i = 0; i < 3; i++) {
+			assertEquals(0, rateLimiter.tryAcquire("user"));
+		}
+		assertTrue(rateLimiter.tryAcquire("user") > 0);
+	}
+
+	@Test
+	void tryAcquire_WhenOtherClientLimited_ExpectIndependentBuckets() {
+		for (int i = 0; i < 3; i++) {
+			rateLimiter.tryAcquire("user");
+		}
+		assertTrue(rateLimiter.tryAcquire("user") > 0);
+		assertEquals(0, rateLimiter.tryAcquire("other"));
+	}
+}
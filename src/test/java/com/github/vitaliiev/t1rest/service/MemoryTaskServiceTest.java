@@ -0,0 +1,10 @@
+package com.github.vitaliiev.t1rest.service;
+
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs {@link TaskServiceTest} against {@link com.github.vitaliiev.t1rest.repository.MemoryTaskStore}.
+ */
+@ActiveProfiles("memory")
+class MemoryTaskServiceTest extends TaskServiceTest {
+}
@@ -0,0 +1,136 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.TaskChange;
+import com.github.vitaliiev.t1rest.model.TaskChangeEvent;
+import com.github.vitaliiev.t1rest.model.TaskChangeType;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskChangeFeedImplTest {
+
+	private final List<Runnable> scheduled = new ArrayList<>();
+	private final Executor executor = scheduled::add;
+	private final AtomicLong now = new AtomicLong();
+	private final TaskChangeFeedImpl feed = new TaskChangeFeedImpl(executor, 2, 3, Duration.ofSeconds(1), now::get);
+
+	@Test
+	void publish_WhenSubscribed_ExpectChangesInOrder() {
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		feed.subscribe(null, subscriber);
+		feed.publish(event(TaskChangeType.CREATED));
+		feed.publish(event(TaskChangeType.UPDATED));
+		runScheduled();
+		assertEquals(List.of(1L, 2L), subscriber.sequences());
+		assertEquals(TaskChangeType.UPDATED, subscriber.changes.get(1).getType());
+		assertFalse(subscriber.completed);
+	}
+
+	@Test
+	void publish_WhenSubscriberSlow_ExpectDroppedWithoutBlocking() {
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		feed.subscribe(null, subscriber);
+		feed.publish(event(TaskChangeType.CREATED));
+		feed.publish(event(TaskChangeType.CREATED));
+		feed.publish(event(TaskChangeType.CREATED));
+		runScheduled();
+		assertTrue(subscriber.changes.isEmpty());
+		assertTrue(subscriber.completed);
+	}
+
+	@Test
+	void publish_WhenSendBlockedLongerThanWriteTimeout_ExpectDropped() {
+		RecordingSubscriber subscriber = new RecordingSubscriber() {
+			@Override
+			public void send(TaskChange change) throws IOException {
+				super.send(change);
+				// another change is committed while this send is still blocked
+				now.addAndGet(Duration.ofSeconds(2).toNanos());
+				feed.publish(event(TaskChangeType.UPDATED));
+			}
+		};
+		feed.subscribe(null, subscriber);
+		RecordingSubscriber other = new RecordingSubscriber();
+		feed.subscribe(null, other);
+		feed.publish(event(TaskChangeType.CREATED));
+		runScheduled();
+		assertEquals(List.of(1L), subscriber.sequences());
+		assertTrue(subscriber.completed);
+		assertEquals(List.of(1L, 2L), other.sequences());
+		assertFalse(other.completed);
+	}
+
+	@Test
+	void subscribe_WhenResumingWithinHistory_ExpectMissedChangesReplayed() {
+		feed.publish(event(TaskChangeType.CREATED));
+		feed.publish(event(TaskChangeType.UPDATED));
+		feed.publish(event(TaskChangeType.DELETED));
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		feed.subscribe(1L, subscriber);
+		// replayed on the subscribing thread
+		assertEquals(List.of(2L, 3L), subscriber.sequences());
+		feed.publish(event(TaskChangeType.CREATED));
+		runScheduled();
+		assertEquals(List.of(2L, 3L, 4L), subscriber.sequences());
+	}
+
+	@Test
+	void subscribe_WhenResumingBeforeHistory_ExpectReset() {
+		for (int i = 0; i < 5; i++) {
+			feed.publish(event(TaskChangeType.CREATED));
+		}
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		feed.subscribe(1L, subscriber);
+		runScheduled();
+		assertEquals(1, subscriber.changes.size());
+		assertEquals(TaskChangeType.RESET, subscriber.changes.get(0).getType());
+		assertEquals(5L, subscriber.changes.get(0).getSequence());
+	}
+
+	@Test
+	void subscribe_WhenUnsubscribed_ExpectNoMoreChanges() {
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		Runnable unsubscribe = feed.subscribe(null, subscriber);
+		unsubscribe.run();
+		feed.publish(event(TaskChangeType.CREATED));
+		runScheduled();
+		assertTrue(subscriber.changes.isEmpty());
+	}
+
+	private void runScheduled() {
+		while (!scheduled.isEmpty()) {
+			scheduled.remove(0).run();
+		}
+	}
+
+	private static TaskChangeEvent event(TaskChangeType type) {
+		return new TaskChangeEvent(type, UUID.randomUUID(), 0L, null, null);
+	}
+
+	private static class RecordingSubscriber implements TaskChangeSubscriber {
+		private final List<TaskChange> changes = new ArrayList<>();
+		private boolean completed;
+
+		@Override
+		public void send(TaskChange change) throws IOException {
+			changes.add(change);
+		}
+
+		@Override
+		public void complete() {
+			completed = true;
+		}
+
+		List<Long> sequences() {
+			return changes.stream().map(TaskChange::getSequence).toList();
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.ImportResult;
+import com.github.vitaliiev.t1rest.repository.TaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"t1rest.import.chunk-size=2", "t1rest.import.max-line-length=100"})
+class TaskImportServiceTest {
+
+	@Autowired
+	private TaskRepository repository;
+	@Autowired
+	private TaskImportService taskImportService;
+
+	@Test
+	void importTasks_WhenMoreLinesThanChunk_ExpectAllAccepted() throws Exception {
+		String ndjson = IntStream.range(0, 5)
+				.mapToObj(i -> "{\"title\":\"i" + i + "\",\"description\":\"i" + i + "\"}")
+				.collect(Collectors.joining("\n"));
+		ImportResult result = taskImportService.importTasks(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+		assertEquals(5, result.getAccepted());
+		assertEquals(0, result.getRejected());
+		assertTrue(result.getErrors().isEmpty());
+		assertEquals(5, repository.count());
+		repository.deleteAll();
+	}
+
+	@Test
+	void importTasks_WhenLineInvalid_ExpectRejectedWithLineNumber() throws Exception {
+		String ndjson = "{\"title\":\"j1\"}\n[1, 2]\n";
+		ImportResult result = taskImportService.importTasks(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+		assertEquals(0, result.getAccepted());
+		assertEquals(2, result.getRejected());
+		assertEquals(1, result.getErrors().get(0).getLine());
+		assertEquals(2, result.getErrors().get(1).getLine());
+	}
+
+	@Test
+	void importTasks_WhenLineTooLong_ExpectRejectedAndFollowingLinesImported() throws Exception {
+		String ndjson = "{\"title\":\"k1\",\"description\":\"" + "k".repeat(200) + "\"}\n"
+				+ "{\"title\":\"k2\",\"description\":\"k2\"}\n";
+		ImportResult result = taskImportService.importTasks(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+		assertEquals(1, result.getAccepted());
+		assertEquals(1, result.getRejected());
+		assertEquals(1, result.getErrors().get(0).getLine());
+		assertEquals("Line exceeds 100 characters", result.getErrors().get(0).getMessage());
+		repository.deleteAll();
+	}
+}
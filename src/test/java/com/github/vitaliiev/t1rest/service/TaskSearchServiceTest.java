@@ -0,0 +1,137 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.BatchItemResult;
+import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TaskSearchServiceTest {
+
+	@Autowired
+	private TaskService taskService;
+	@Autowired
+	private TaskSearchService taskSearchService;
+
+	@Test
+	void search_WhenWordInTitleAndDescription_ExpectTitleMatchFirst() throws Exception {
+		Task inDescription = taskService.createTask(createTaskDto("chores", "buy zucchini and milk"));
+		Task inTitle = taskService.createTask(createTaskDto("zucchini soup", "dinner"));
+		Page<TaskSummary> result = awaitSearch("Zucchini", page -> page.getTotalElements() == 2);
+		assertEquals(List.of(inTitle.getId(), inDescription.getId()),
+				result.getContent().stream().map(TaskSummary::getId).toList());
+		assertEquals("zucchini soup", result.getContent().get(0).getTitle());
+		taskService.deleteTask(inDescription.getId());
+		taskService.deleteTask(inTitle.getId());
+	}
+
+	@Test
+	void search_WhenSeveralWords_ExpectAllRequired() throws Exception {
+		Task both = taskService.createTask(createTaskDto("quince jam", "with cardamom"));
+		Task one = taskService.createTask(createTaskDto("quince tart", "with cinnamon"));
+		Page<TaskSummary> result = awaitSearch("quince cardamom", page -> page.getTotalElements() == 1);
+		assertEquals(both.getId(), result.getContent().get(0).getId());
+		taskService.deleteTask(both.getId());
+		taskService.deleteTask(one.getId());
+	}
+
+	@Test
+	void search_WhenTaskUpdatedAndDeleted_ExpectIndexFollows() throws Exception {
+		Task task = taskService.createTask(createTaskDto("kohlrabi", "kohlrabi"));
+		awaitSearch("kohlrabi", page -> page.getTotalElements() == 1);
+		taskService.updateTask(task.getId(), UpdateTaskDto.builder().title("rutabaga").description("rutabaga").build());
+		awaitSearch("rutabaga", page -> page.getTotalElements() == 1);
+		awaitSearch("kohlrabi", page -> page.getTotalElements() == 0);
+		taskService.deleteTask(task.getId());
+		awaitSearch("rutabaga", page -> page.getTotalElements() == 0);
+	}
+
+	@Test
+	void search_WhenPageBeyondResults_ExpectEmptyContentWithTotal() throws Exception {
+		Task task = taskService.createTask(createTaskDto("persimmon", "persimmon"));
+		awaitSearch("persimmon", page -> page.getTotalElements() == 1);
+		Page<TaskSummary> second = taskSearchService.search("persimmon", 1);
+		assertTrue(second.getContent().isEmpty());
+		assertEquals(1, second.getTotalElements());
+		taskService.deleteTask(task.getId());
+	}
+
+	@Test
+	void search_WhenMoreHitsThanPageSize_ExpectNextHitsOnSecondPage() throws Exception {
+		List<CreateTaskDto> dtos = IntStream.range(0, 150)
+				.mapToObj(i -> createTaskDto("loquat " + i, "loquat"))
+				.toList();
+		List<UUID> ids = taskService.createTasks(dtos).stream().map(BatchItemResult::getId).toList();
+		Page<TaskSummary> first = awaitSearch("loquat", page -> page.getTotalElements() == 150);
+		Page<TaskSummary> second = taskSearchService.search("loquat", 1);
+		assertEquals(100, first.getContent().size());
+		assertEquals(50, second.getContent().size());
+		assertEquals(150, second.getTotalElements());
+		Set<UUID> seen = new HashSet<>();
+		first.getContent().forEach(task -> seen.add(task.getId()));
+		second.getContent().forEach(task -> seen.add(task.getId()));
+		assertEquals(new HashSet<>(ids), seen);
+		taskService.deleteTasks(ids);
+	}
+
+	@Test
+	void search_WhenPageOffsetExceedsInt_ExpectEmptyContent() {
+		Page<TaskSummary> page = taskSearchService.search("loquat", Integer.MAX_VALUE);
+		assertTrue(page.getContent().isEmpty());
+	}
+
+	@Test
+	void search_WhenOnlyPunctuation_ExpectEmpty() {
+		assertEquals(0, taskSearchService.search("?!", null).getTotalElements());
+	}
+
+	@Test
+	void search_WhenBlank_ExpectConstraintViolation() {
+		assertThrows(ConstraintViolationException.class, () -> taskSearchService.search(" ", null));
+	}
+
+	@Test
+	void rebuild_WhenRequested_ExpectExistingTasksSearchable() throws Exception {
+		Task task = taskService.createTask(createTaskDto("tamarillo", "tamarillo"));
+		taskSearchService.rebuild();
+		awaitSearch("tamarillo", page -> page.getTotalElements() == 1);
+		taskService.deleteTask(task.getId());
+	}
+
+	// indexing is asynchronous
+	private Page<TaskSummary> awaitSearch(String query, Predicate<Page<TaskSummary>> condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		Page<TaskSummary> result = taskSearchService.search(query, null);
+		while (!condition.test(result) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			result = taskSearchService.search(query, null);
+		}
+		assertTrue(condition.test(result), "search for [" + query + "] returned " + result.getTotalElements());
+		return result;
+	}
+
+	private CreateTaskDto createTaskDto(String title, String description) {
+		return CreateTaskDto.builder()
+				.title(title)
+				.description(description)
+				.dueDate(LocalDate.now())
+				.completed(false)
+				.build();
+	}
+}
@@ -1,17 +1,45 @@
 package com.github.vitaliiev.t1rest.service;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.vitaliiev.t1rest.config.CacheConfig;
+import com.github.vitaliiev.t1rest.model.BatchItemResult;
+import com.github.vitaliiev.t1rest.model.BatchItemStatus;
+import com.github.vitaliiev.t1rest.model.BatchUpdateTaskDto;
 import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.model.CursorPage;
+import com.github.vitaliiev.t1rest.model.InvalidCursorException;
+import com.github.vitaliiev.t1rest.model.InvalidPageSizeException;
 import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskChange;
+import com.github.vitaliiev.t1rest.model.TaskChangeType;
+import com.github.vitaliiev.t1rest.model.TaskFilter;
+import com.github.vitaliiev.t1rest.model.TaskSort;
+import com.github.vitaliiev.t1rest.model.TaskSummary;
+import com.github.vitaliiev.t1rest.model.TaskVersionMismatchException;
+import com.github.vitaliiev.t1rest.model.TaskView;
 import com.github.vitaliiev.t1rest.model.TaskNotFountException;
 import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
-import com.github.vitaliiev.t1rest.repository.TaskRepository;
+import com.github.vitaliiev.t1rest.repository.TaskStore;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,42 +47,165 @@ import static org.junit.jupiter.api.Assertions.*;
 class TaskServiceTest {
 
 	@Autowired
-	private TaskRepository repository;
+	private TaskStore store;
 	@Autowired
 	private TaskService taskService;
+	@Autowired
+	private CacheManager cacheManager;
+	@Autowired
+	private TaskCache taskCache;
+	@Autowired
+	private TaskChangeFeed taskChangeFeed;
 
 	@Test
 	void getTasks_WhenEmpty_ReturnEmptyList() {
-		Page<Task> tasks = taskService.getTasks(null);
+		Page<TaskSummary> tasks = taskService.getTasks(null);
 		assertEquals(0, tasks.getTotalElements());
 		assertEquals(0, tasks.getTotalPages());
 	}
 
 	@Test
 	void getTasks_WhenOne_ReturnOne() {
-		Task task = repository.save(createTask("1", "1", LocalDate.now(), true));
+		Task task = store.save(createTask("1", "1", LocalDate.now(), true));
 
-		Page<Task> tasks = taskService.getTasks(null);
+		Page<TaskSummary> tasks = taskService.getTasks(null);
 		assertEquals(1, tasks.getTotalElements());
 		assertEquals(1, tasks.getTotalPages());
 		tasks.stream().findFirst().ifPresent(t -> assertEquals(t.getId(), task.getId()));
-		repository.delete(task);
+		delete(task);
 	}
 
 	@Test
 	void getTasks_WhenOnePageParamSet_ReturnOne() {
-		Task task = repository.save(createTask("2", "2", LocalDate.now(), true));
-		Page<Task> page0 = taskService.getTasks(0);
+		Task task = store.save(createTask("2", "2", LocalDate.now(), true));
+		Page<TaskSummary> page0 = taskService.getTasks(0);
 		assertEquals(1, page0.getTotalElements());
 		assertEquals(1, page0.getTotalPages());
 		assertEquals(1, page0.getContent().size());
 
-		Page<Task> page1 = taskService.getTasks(1);
+		Page<TaskSummary> page1 = taskService.getTasks(1);
 		assertEquals(1, page1.getTotalElements());
 		assertEquals(1, page1.getTotalPages());
 		assertEquals(0, page1.getContent().size());
 
-		repository.delete(task);
+		delete(task);
+	}
+
+	@Test
+	void getTasks_WhenFiltered_ReturnMatching() {
+		LocalDate today = LocalDate.now();
+		List<Task> saved = store.saveAll(List.of(
+				createTask("alpha", "f1", today, false),
+				createTask("alpha_2", "f2", today.plusDays(5), false),
+				createTask("beta", "f3", today, true)));
+
+		TaskFilter open = TaskFilter.builder().completed(false).sort(TaskSort.DUE_DATE_DESC).build();
+		Page<TaskSummary> openTasks = taskService.getTasks(null, open);
+		assertEquals(2, openTasks.getTotalElements());
+		assertEquals("alpha_2", openTasks.getContent().get(0).getTitle());
+
+		TaskFilter dueToday = TaskFilter.builder().dueFrom(today).dueTo(today).build();
+		assertEquals(2, taskService.getTasks(null, dueToday).getTotalElements());
+
+		TaskFilter prefix = TaskFilter.builder().titlePrefix("alpha_").build();
+		Page<TaskSummary> prefixed = taskService.getTasks(null, prefix);
+		assertEquals(1, prefixed.getTotalElements());
+		assertEquals("alpha_2", prefixed.getContent().get(0).getTitle());
+
+		delete(saved);
+	}
+
+	@Test
+	void getTasks_WhenSizeSet_ReturnPagesOfThatSize() {
+		LocalDate today = LocalDate.now();
+		List<Task> saved = store.saveAll(List.of(
+				createTask("19a", "19a", today, false),
+				createTask("19b", "19b", today, false),
+				createTask("19c", "19c", today, false)));
+		TaskFilter filter = TaskFilter.builder().titlePrefix("19").sort(TaskSort.TITLE).build();
+
+		Page<TaskSummary> first = taskService.getTasks(0, 2, filter);
+		assertEquals(List.of("19a", "19b"), first.getContent().stream().map(TaskSummary::getTitle).toList());
+		assertEquals(3, first.getTotalElements());
+		assertEquals(2, first.getTotalPages());
+
+		Page<TaskSummary> second = taskService.getTasks(1, 2, filter);
+		assertEquals(List.of("19c"), second.getContent().stream().map(TaskSummary::getTitle).toList());
+		assertEquals(3, second.getTotalElements());
+
+		delete(saved);
+	}
+
+	@Test
+	void getTaskSlice_WhenMoreRows_ReturnHasNextWithoutTotal() {
+		LocalDate today = LocalDate.now();
+		List<Task> saved = store.saveAll(List.of(
+				createTask("19d", "19d", today, false),
+				createTask("19e", "19e", today, false),
+				createTask("19f", "19f", today, false)));
+		TaskFilter filter = TaskFilter.builder().titlePrefix("19").sort(TaskSort.TITLE).build();
+
+		Slice<TaskSummary> first = taskService.getTaskSlice(0, 2, filter);
+		assertEquals(List.of("19d", "19e"), first.getContent().stream().map(TaskSummary::getTitle).toList());
+		assertTrue(first.hasNext());
+
+		Slice<TaskSummary> second = taskService.getTaskSlice(1, 2, filter);
+		assertEquals(List.of("19f"), second.getContent().stream().map(TaskSummary::getTitle).toList());
+		assertFalse(second.hasNext());
+
+		delete(saved);
+	}
+
+	@Test
+	void getTasks_WhenSizeAboveMax_ExpectInvalidPageSize() {
+		TaskFilter filter = TaskFilter.builder().build();
+		assertThrows(InvalidPageSizeException.class, () -> taskService.getTasks(0, 501, filter));
+		assertThrows(InvalidPageSizeException.class, () -> taskService.getTaskSlice(0, 501, filter));
+	}
+
+	@Test
+	void scrollTasks_WhenEmpty_ReturnEmptyList() {
+		CursorPage<TaskSummary> tasks = taskService.scrollTasks(null);
+		assertTrue(tasks.getContent().isEmpty());
+		assertNull(tasks.getNextCursor());
+	}
+
+	@Test
+	void scrollTasks_WhenMoreThanOneSlice_ReturnEachTaskOnce() {
+		List<Task> saved = store.saveAll(IntStream.range(0, 101)
+				.mapToObj(i -> createTask("s" + i, "s" + i, LocalDate.now().plusDays(i % 3), true))
+				.toList());
+
+		CursorPage<TaskSummary> first = taskService.scrollTasks(null);
+		assertEquals(100, first.getContent().size());
+		assertNotNull(first.getNextCursor());
+
+		CursorPage<TaskSummary> second = taskService.scrollTasks(first.getNextCursor());
+		assertEquals(1, second.getContent().size());
+		assertNull(second.getNextCursor());
+
+		Set<UUID> ids = new HashSet<>();
+		first.getContent().forEach(t -> ids.add(t.getId()));
+		second.getContent().forEach(t -> ids.add(t.getId()));
+		assertEquals(101, ids.size());
+		delete(saved);
+	}
+
+	@Test
+	void scrollTasks_WhenCursorInvalid_ExpectInvalidCursor() {
+		assertThrows(InvalidCursorException.class, () -> taskService.scrollTasks("not-a-cursor"));
+	}
+
+	@Test
+	void exportTasks_WhenMany_ExpectEachTaskWithDescription() {
+		List<Task> saved = store.saveAll(IntStream.range(0, 3)
+				.mapToObj(i -> createTask("e" + i, "e" + i, LocalDate.now(), false))
+				.toList());
+		List<TaskView> exported = new ArrayList<>();
+		taskService.exportTasks(exported::add);
+		assertEquals(3, exported.size());
+		exported.forEach(t -> assertEquals(t.getTitle(), t.getDescription()));
+		delete(saved);
 	}
 
 	@Test
@@ -65,8 +216,8 @@ class TaskServiceTest {
 		assertEquals(task.getDescription(), createTaskDto.getDescription());
 		assertEquals(task.getDueDate(), createTaskDto.getDueDate());
 		assertEquals(task.getCompleted(), createTaskDto.getCompleted());
-		assertTrue(repository.existsById(task.getId()));
-		repository.delete(task);
+		assertTrue(store.existsById(task.getId()));
+		delete(task);
 	}
 
 	@Test
@@ -77,21 +228,80 @@ class TaskServiceTest {
 		assertEquals(task.getDescription(), createTaskDto.getDescription());
 		assertNotNull(task.getDueDate());
 		assertEquals(task.getCompleted(), false);
-		assertTrue(repository.existsById(task.getId()));
-		repository.delete(task);
+		assertTrue(store.existsById(task.getId()));
+		delete(task);
 	}
 
 	@Test
 	void getTask_WhenExist_ExpectOne() {
-		Task task = repository.save(createTask("5", "5", LocalDate.now(), true));
+		Task task = store.save(createTask("5", "5", LocalDate.now(), true));
 		Task saved = taskService.getTask(task.getId());
 		assertEquals(saved.getTitle(), task.getTitle());
 		assertEquals(saved.getDescription(), task.getDescription());
 		assertEquals(saved.getDueDate(), task.getDueDate());
 		assertEquals(saved.getCompleted(), task.getCompleted());
-		repository.delete(task);
+		delete(task);
+	}
+
+
+	@Test
+	void getTask_WhenCalledTwice_ExpectCachedUntilUpdated() {
+		Task task = store.save(createTask("5a", "5a", LocalDate.now(), true));
+		Cache cache = cacheManager.getCache(CacheConfig.TASKS_CACHE);
+		assertNotNull(cache);
+
+		Task first = taskService.getTask(task.getId());
+		assertNotNull(cache.get(task.getId()));
+		first.setTitle("changed by the caller");
+		Task second = taskService.getTask(task.getId());
+		assertNotSame(first, second);
+		assertEquals("5a", second.getTitle());
+
+		taskService.updateTask(task.getId(), updateTaskDto(null, null, null, false));
+		Task updated = taskService.getTask(task.getId());
+		assertEquals(false, updated.getCompleted());
+		assertEquals(task.getVersion() + 1, updated.getVersion());
+
+		taskService.deleteTask(task.getId());
+		assertThrows(TaskNotFountException.class, () -> taskService.getTask(task.getId()));
 	}
 
+	@Test
+	void getTask_WhenReadAfterUpdate_ExpectCountedAsMiss() {
+		Task task = store.save(createTask("5c", "5c", LocalDate.now(), false));
+		CacheStats before = tasksCacheStats();
+		taskService.getTask(task.getId());
+		taskService.getTask(task.getId());
+		taskService.updateTask(task.getId(), updateTaskDto(null, null, null, true));
+		taskService.getTask(task.getId());
+
+		CacheStats stats = tasksCacheStats().minus(before);
+		assertEquals(1, stats.hitCount());
+		assertEquals(2, stats.missCount());
+		delete(task);
+	}
+
+	@Test
+	void getTask_WhenLoadFinishesAfterConcurrentUpdate_ExpectStaleRowNotCached() throws Exception {
+		Task task = store.save(createTask("5b", "5b", LocalDate.now(), false));
+		CountDownLatch loaded = new CountDownLatch(1);
+		CountDownLatch updated = new CountDownLatch(1);
+		// a reader that loaded the row before the update commits and caches it afterwards
+		Thread reader = new Thread(() -> taskCache.get(task.getId(), () -> {
+			Optional<Task> row = store.findById(task.getId());
+			loaded.countDown();
+			assertDoesNotThrow(() -> updated.await(5, TimeUnit.SECONDS));
+			return row;
+		}));
+		reader.start();
+		assertTrue(loaded.await(5, TimeUnit.SECONDS));
+		taskService.updateTask(task.getId(), updateTaskDto("5b updated", null, null, null));
+		updated.countDown();
+		reader.join(TimeUnit.SECONDS.toMillis(5));
+
+		assertEquals("5b updated", taskService.getTask(task.getId()).getTitle());
+		taskService.deleteTask(task.getId());
+	}
 
 	@Test
 	void getTask_WhenDoesntExist_ExpectTaskNotFound() {
@@ -100,27 +310,50 @@ class TaskServiceTest {
 
 	@Test
 	void updateTask_WhenValidDtoAndExists_ExpectSuccess() throws Exception {
-		Task task = repository.save(createTask("6", "6", LocalDate.now(), true));
+		Task task = store.save(createTask("6", "6", LocalDate.now(), true));
 		UpdateTaskDto updateTaskDto = updateTaskDto("6n", "6n", LocalDate.of(1, 1, 1), false);
 		Task updated = taskService.updateTask(task.getId(), updateTaskDto);
 		assertEquals(updated.getTitle(), updateTaskDto.getTitle());
 		assertEquals(updated.getDescription(), updateTaskDto.getDescription());
 		assertEquals(updated.getDueDate(), updateTaskDto.getDueDate());
 		assertEquals(updated.getCompleted(), updateTaskDto.getCompleted());
-		repository.delete(task);
+		delete(task);
 	}
 
 
 	@Test
 	void updateTask_WhenPartialUpdateDtoAndExists_ExpectSuccess() {
-		Task task = repository.save(createTask("7", "7", LocalDate.now(), true));
+		Task task = store.save(createTask("7", "7", LocalDate.now(), true));
 		UpdateTaskDto updateTaskDto = updateTaskDto("7n", "7n", null, false);
 		Task updated = taskService.updateTask(task.getId(), updateTaskDto);
 		assertEquals(updated.getTitle(), updateTaskDto.getTitle());
 		assertEquals(updated.getDescription(), updateTaskDto.getDescription());
 		assertEquals(updated.getDueDate(), task.getDueDate());
 		assertEquals(updated.getCompleted(), updateTaskDto.getCompleted());
-		repository.delete(task);
+		delete(task);
+	}
+
+	@Test
+	void updateTask_WhenOnlyCompletedChanged_ExpectOtherFieldsKept() {
+		Task task = store.save(createTask("7a", "7a", LocalDate.now(), false));
+		Task updated = taskService.updateTask(task.getId(), updateTaskDto(null, null, null, true));
+		assertEquals(task.getId(), updated.getId());
+		assertEquals(task.getTitle(), updated.getTitle());
+		assertEquals(task.getDescription(), updated.getDescription());
+		assertEquals(task.getDueDate(), updated.getDueDate());
+		assertTrue(updated.getCompleted());
+		assertTrue(store.findById(task.getId()).orElseThrow().getCompleted());
+		delete(task);
+	}
+
+	@Test
+	void updateTask_WhenNothingChanged_ExpectUnchanged() {
+		Task task = store.save(createTask("7b", "7b", LocalDate.now(), false));
+		Task updated = taskService.updateTask(task.getId(), updateTaskDto(null, null, null, null));
+		assertEquals(task.getTitle(), updated.getTitle());
+		assertEquals(task.getDescription(), updated.getDescription());
+		assertFalse(updated.getCompleted());
+		delete(task);
 	}
 
 	@Test
@@ -131,12 +364,64 @@ class TaskServiceTest {
 
 	@Test
 	void deleteTask_WhenExists_ExpectDeleted() throws Exception {
-		Task task = repository.save(createTask("11", "11", LocalDate.now(), true));
+		Task task = store.save(createTask("11", "11", LocalDate.now(), true));
 		taskService.deleteTask(task.getId());
-		assertFalse(repository.existsById(task.getId()));
+		assertFalse(store.existsById(task.getId()));
 	}
 
 
+	@Test
+	void deleteTask_WhenVersionStale_ExpectVersionMismatch() {
+		Task task = store.save(createTask("11a", "11a", LocalDate.now(), true));
+		assertThrows(TaskVersionMismatchException.class, () -> taskService.deleteTask(task.getId(), 5L));
+		assertTrue(store.existsById(task.getId()));
+		taskService.deleteTask(task.getId(), task.getVersion());
+		assertFalse(store.existsById(task.getId()));
+	}
+
+	@Test
+	void deleteCompletedTasks_WhenMixed_ExpectOnlyOldCompletedDeleted() {
+		LocalDate today = LocalDate.now();
+		Task oldCompleted = store.save(createTask("11b", "11b", today.minusDays(10), true));
+		Task oldOpen = store.save(createTask("11c", "11c", today.minusDays(10), false));
+		Task newCompleted = store.save(createTask("11d", "11d", today, true));
+		assertEquals(1, taskService.deleteCompletedTasks(today.minusDays(1)));
+		assertFalse(store.existsById(oldCompleted.getId()));
+		assertTrue(store.existsById(oldOpen.getId()));
+		assertTrue(store.existsById(newCompleted.getId()));
+		delete(oldOpen);
+		delete(newCompleted);
+	}
+
+	@Test
+	void createAndDeleteTask_WhenSubscribed_ExpectChangesAfterCommit() throws Exception {
+		BlockingQueue<TaskChange> changes = new LinkedBlockingQueue<>();
+		Runnable unsubscribe = taskChangeFeed.subscribe(null, new TaskChangeSubscriber() {
+			@Override
+			public void send(TaskChange change) {
+				changes.add(change);
+			}
+
+			@Override
+			public void complete() {
+			}
+		});
+		Task task = taskService.createTask(createTaskDto("11e", "11e", LocalDate.now(), false));
+		taskService.deleteTask(task.getId());
+		assertThrows(TaskNotFountException.class, () -> taskService.deleteTask(task.getId()));
+
+		TaskChange created = changes.poll(5, TimeUnit.SECONDS);
+		TaskChange deleted = changes.poll(5, TimeUnit.SECONDS);
+		unsubscribe.run();
+		assertNotNull(created);
+		assertEquals(TaskChangeType.CREATED, created.getType());
+		assertEquals(task.getId(), created.getId());
+		assertNotNull(deleted);
+		assertEquals(TaskChangeType.DELETED, deleted.getType());
+		assertEquals(created.getSequence() + 1, deleted.getSequence());
+		assertNull(changes.poll(100, TimeUnit.MILLISECONDS));
+	}
+
 	@Test
 	void deleteTask_WhenDontExist_ExpectTaskNotFound() {
 		assertThrows(TaskNotFountException.class ,() -> taskService.deleteTask(UUID.randomUUID()));
@@ -144,6 +429,42 @@ class TaskServiceTest {
 	}
 
 
+	@Test
+	void batchOperations_WhenMixedItems_ExpectPerItemResults() {
+		List<BatchItemResult> created = taskService.createTasks(List.of(
+				createTaskDto("b1", "b1", LocalDate.now(), false),
+				createTaskDto("b2", "b2", null, null)));
+		assertEquals(2, created.size());
+		created.forEach(r -> assertEquals(BatchItemStatus.CREATED, r.getStatus()));
+		UUID first = created.get(0).getId();
+		UUID second = created.get(1).getId();
+		UUID missing = UUID.randomUUID();
+
+		List<BatchItemResult> updated = taskService.updateTasks(List.of(
+				BatchUpdateTaskDto.builder().id(first).changes(updateTaskDto(null, null, null, true)).build(),
+				BatchUpdateTaskDto.builder().id(missing).changes(updateTaskDto("b3", null, null, null)).build()));
+		assertEquals(BatchItemStatus.UPDATED, updated.get(0).getStatus());
+		assertEquals(BatchItemStatus.NOT_FOUND, updated.get(1).getStatus());
+		assertEquals(1, updated.get(1).getIndex());
+		assertTrue(store.findById(first).orElseThrow().getCompleted());
+
+		List<BatchItemResult> deleted = taskService.deleteTasks(List.of(first, missing, second));
+		assertEquals(BatchItemStatus.DELETED, deleted.get(0).getStatus());
+		assertEquals(BatchItemStatus.NOT_FOUND, deleted.get(1).getStatus());
+		assertEquals(BatchItemStatus.DELETED, deleted.get(2).getStatus());
+		assertFalse(store.existsById(first));
+		assertFalse(store.existsById(second));
+	}
+
+
+	private void delete(Task task) {
+		store.deleteReturning(task.getId(), null);
+	}
+
+	private void delete(List<Task> tasks) {
+		store.deleteAllReturning(tasks.stream().map(Task::getId).toList());
+	}
+
 	private Task createTask(String title, String description, LocalDate dueDate, Boolean completed) {
 		Task task = new Task();
 		task.setTitle(title);
@@ -163,6 +484,11 @@ class TaskServiceTest {
 	}
 
 
+	private CacheStats tasksCacheStats() {
+		return ((com.github.benmanes.caffeine.cache.Cache<?, ?>) cacheManager.getCache(CacheConfig.TASKS_CACHE)
+				.getNativeCache()).stats();
+	}
+
 	private UpdateTaskDto updateTaskDto(String title, String description, LocalDate dueDate, Boolean completed) {
 		return UpdateTaskDto.builder()
 				.title(title)
@@ -0,0 +1,115 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.CreateTaskDto;
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskStats;
+import com.github.vitaliiev.t1rest.model.UpdateTaskDto;
+import com.github.vitaliiev.t1rest.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TaskStatsServiceTest {
+
+	@Autowired
+	private TaskRepository repository;
+	@Autowired
+	private TaskService taskService;
+	@Autowired
+	private TaskStatsService taskStatsService;
+
+	@BeforeEach
+	void setUp() {
+		// other tests change the table directly through the repository
+		taskStatsService.reconcile();
+	}
+
+	@Test
+	void getStats_WhenTasksChangedThroughService_ExpectCountersFollow() {
+		LocalDate today = LocalDate.now();
+		TaskStats before = taskStatsService.getStats();
+
+		Task overdue = taskService.createTask(createTaskDto("20a", today.minusDays(1), false));
+		Task dueToday = taskService.createTask(createTaskDto("20b", today, false));
+		Task dueSoon = taskService.createTask(createTaskDto("20c", today.plusDays(3), false));
+		Task dueLater = taskService.createTask(createTaskDto("20d", today.plusDays(30), true));
+		TaskStats created = taskStatsService.getStats();
+		assertEquals(before.getTotal() + 4, created.getTotal());
+		assertEquals(before.getOpen() + 3, created.getOpen());
+		assertEquals(before.getCompleted() + 1, created.getCompleted());
+		assertEquals(before.getOverdue() + 1, created.getOverdue());
+		assertEquals(before.getDueToday() + 1, created.getDueToday());
+		assertEquals(before.getDueNextSevenDays() + 1, created.getDueNextSevenDays());
+		assertEquals(before.getDueLater(), created.getDueLater());
+
+		taskService.updateTask(overdue.getId(), UpdateTaskDto.builder().completed(true).build());
+		taskService.updateTask(dueLater.getId(), UpdateTaskDto.builder().completed(false).build());
+		TaskStats updated = taskStatsService.getStats();
+		assertEquals(created.getTotal(), updated.getTotal());
+		assertEquals(before.getOverdue(), updated.getOverdue());
+		assertEquals(before.getDueLater() + 1, updated.getDueLater());
+
+		taskService.deleteTasks(List.of(overdue.getId(), dueToday.getId(), dueSoon.getId(), dueLater.getId()));
+		assertStatsEqual(before, taskStatsService.getStats());
+	}
+
+	@Test
+	void reconcile_WhenTableChangedDirectly_ExpectCountsFromDatabase() {
+		TaskStats before = taskStatsService.getStats();
+		Task task = new Task();
+		task.setTitle("20e");
+		task.setDescription("20e");
+		task.setDueDate(LocalDate.now().minusDays(2));
+		task.setCompleted(false);
+		repository.save(task);
+		assertEquals(before.getTotal(), taskStatsService.getStats().getTotal());
+
+		taskStatsService.reconcile();
+		TaskStats reconciled = taskStatsService.getStats();
+		assertEquals(before.getTotal() + 1, reconciled.getTotal());
+		assertEquals(before.getOverdue() + 1, reconciled.getOverdue());
+		assertNotNull(reconciled.getReconciledAt());
+		repository.deleteById(task.getId());
+	}
+
+	@Test
+	void deleteCompletedTasks_ExpectReconciled() {
+		LocalDate today = LocalDate.now();
+		TaskStats before = taskStatsService.getStats();
+		taskService.createTask(createTaskDto("20f", today.minusDays(10), true));
+		int deleted = taskService.deleteCompletedTasks(today.minusDays(1));
+		TaskStats after = taskStatsService.getStats();
+		assertTrue(deleted >= 1);
+		assertEquals(before.getTotal() + 1 - deleted, after.getTotal());
+		assertEquals(before.getCompleted() + 1 - deleted, after.getCompleted());
+		assertEquals(before.getOpen(), after.getOpen());
+		assertEquals(repository.count(), after.getTotal());
+	}
+
+	private static void assertStatsEqual(TaskStats expected, TaskStats actual) {
+		assertEquals(expected.getTotal(), actual.getTotal());
+		assertEquals(expected.getCompleted(), actual.getCompleted());
+		assertEquals(expected.getOpen(), actual.getOpen());
+		assertEquals(expected.getOverdue(), actual.getOverdue());
+		assertEquals(expected.getDueToday(), actual.getDueToday());
+		assertEquals(expected.getDueNextSevenDays(), actual.getDueNextSevenDays());
+		assertEquals(expected.getDueLater(), actual.getDueLater());
+		assertEquals(expected.getWithoutDueDate(), actual.getWithoutDueDate());
+	}
+
+	private CreateTaskDto createTaskDto(String title, LocalDate dueDate, Boolean completed) {
+		return CreateTaskDto.builder()
+				.title(title)
+				.description(title)
+				.dueDate(dueDate)
+				.completed(completed)
+				.build();
+	}
+}
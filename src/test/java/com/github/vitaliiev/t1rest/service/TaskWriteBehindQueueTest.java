@@ -0,0 +1,92 @@
+package com.github.vitaliiev.t1rest.service;
+
+import com.github.vitaliiev.t1rest.model.Task;
+import com.github.vitaliiev.t1rest.model.TaskQueueFullException;
+import com.github.vitaliiev.t1rest.repository.TaskStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TaskWriteBehindQueueTest {
+
+	private final TaskStore store = mock(TaskStore.class);
+	private final List<Task> inserted = new ArrayList<>();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@BeforeEach
+	void setUp() {
+		doAnswer(invocation -> inserted.addAll(invocation.getArgument(0)))
+				.when(store).insertAll(anyList());
+	}
+
+	@Test
+	void enqueue_WhenCapacityReached_ExpectRejected() throws Exception {
+		TaskWriteBehindQueue queue = queue(2, Duration.ofMinutes(1));
+		queue.enqueue(task());
+		queue.enqueue(task());
+		assertThrows(TaskQueueFullException.class, () -> queue.enqueue(task()));
+		assertEquals(2, meterRegistry.get("tasks.writebehind.queue.depth").gauge().value());
+		assertEquals(1, meterRegistry.get("tasks.writebehind.rejected").counter().count());
+		queue.close();
+	}
+
+	@Test
+	void close_WhenTasksQueued_ExpectAllWritten() throws Exception {
+		TaskWriteBehindQueue queue = queue(100, Duration.ofMinutes(1));
+		List<Task> tasks = List.of(task(), task(), task());
+		for (Task task : tasks) {
+			queue.enqueue(task);
+		}
+		queue.close();
+		assertEquals(tasks, inserted);
+		assertEquals(0, queue.size());
+		assertThrows(TaskQueueFullException.class, () -> queue.enqueue(task()));
+	}
+
+	@Test
+	void enqueue_WhenBatchFails_ExpectRowsRetriedIndividually() throws Exception {
+		Task bad = task();
+		doAnswer(invocation -> {
+			List<Task> tasks = invocation.getArgument(0);
+			if (tasks.contains(bad)) {
+				throw new IllegalStateException("constraint violation");
+			}
+			inserted.addAll(tasks);
+			return null;
+		}).when(store).insertAll(anyList());
+		TaskWriteBehindQueue queue = queue(100, Duration.ofMinutes(1));
+		Task good = task();
+		queue.enqueue(good);
+		queue.enqueue(bad);
+		queue.close();
+		assertEquals(List.of(good), inserted);
+		assertEquals(1, meterRegistry.get("tasks.writebehind.failed").counter().count());
+	}
+
+	private TaskWriteBehindQueue queue(int capacity, Duration flushInterval) {
+		return new TaskWriteBehindQueue(store, mock(PlatformTransactionManager.class), event -> {
+		}, meterRegistry, capacity, 500, flushInterval);
+	}
+
+	private static Task task() {
+		Task task = new Task();
+		task.setId(UUID.randomUUID());
+		task.setTitle("21");
+		task.setDescription("21");
+		task.setDueDate(LocalDate.now());
+		task.setCompleted(false);
+		task.setVersion(0L);
+		return task;
+	}
+}